@@ -3,7 +3,59 @@
  * management.
  */
 public class AuthManager {
+    private static final long DEFAULT_CACHE_BYTES = 64L * 1024 * 1024;
+
     private User currentUser;
+    private final StorageBackend storage;
+    private final UserRegistry registry;
+    private final AutoSaver autoSaver;
+    private final UserCache userCache;
+
+    /**
+     * Creates an AuthManager backed by the default text file storage.
+     */
+    public AuthManager() {
+        this(new TextFileStorage());
+    }
+
+    /**
+     * Creates an AuthManager that loads and saves users through a backend.
+     * 
+     * @param storage The storage backend to use.
+     */
+    public AuthManager(StorageBackend storage) {
+        this.storage = storage;
+        this.registry = new UserRegistry(storage);
+        this.autoSaver = new AutoSaver(storage);
+        // Evicted users go through the saver so writes stay on one thread
+        this.userCache = new UserCache(DEFAULT_CACHE_BYTES, autoSaver::markDirty);
+    }
+
+    public StorageBackend getStorage() {
+        return storage;
+    }
+
+    public UserRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Retrieves the background saver that persists the current user's changes.
+     * 
+     * @return The AutoSaver instance.
+     */
+    public AutoSaver getAutoSaver() {
+        return autoSaver;
+    }
+
+    /**
+     * Retrieves the cache of recently logged-in users.
+     * 
+     * @return The UserCache instance.
+     */
+    public UserCache getUserCache() {
+        return userCache;
+    }
 
     /**
      * Retrieves the currently logged-in user.
@@ -44,14 +96,19 @@ public class AuthManager {
             return RegistrationResult.INVALID_INPUT;
         }
 
-        if (FileManager.userExists(username)) {
+        String name = username.trim();
+        if (registry.exists(name)) {
             return RegistrationResult.USERNAME_TAKEN;
         }
 
-        User newUser = new User(username.trim(), password);
+        User newUser = new User(name, password);
 
-        if (FileManager.saveUser(newUser)) {
+        if (storage.save(newUser)) {
+            registry.add(name);
+            userCache.put(newUser);
+            userCache.pin(name);
             currentUser = newUser;
+            autoSaver.watch(newUser);
             return RegistrationResult.SUCCESS;
         }
         return RegistrationResult.INVALID_INPUT; // Fallback for save error
@@ -65,22 +122,38 @@ public class AuthManager {
      * @return true if credentials are valid, false otherwise.
      */
     public boolean login(String username, String password) {
-        User user = FileManager.loadUser(username);
+        if (!registry.mightExist(username)) {
+            return false; // Unknown user, no need to touch storage
+        }
+        User user = userCache.get(username);
+        if (user == null) {
+            user = storage.load(username);
+            if (user == null) {
+                return false;
+            }
+            userCache.put(user);
+        }
 
-        if (user == null || !user.validatePassword(password)) {
+        if (!user.validatePassword(password)) {
             return false;
         }
 
         currentUser = user;
+        userCache.pin(username);
+        autoSaver.watch(user);
         return true;
     }
 
     /**
-     * Logs out the current user and saves their data.
+     * Logs out the current user and flushes their data to disk.
+     * The user stays cached so logging back in does not reload the file.
      */
     public void logout() {
         if (currentUser != null) {
-            FileManager.saveUser(currentUser);
+            autoSaver.unwatch(currentUser);
+            autoSaver.markDirty(currentUser);
+            autoSaver.flush();
+            userCache.unpin();
             currentUser = null;
         }
     }
@@ -0,0 +1,164 @@
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Shows a suggestion popup under a text field as the user types.
+ * Arrow keys move the selection, Enter or a click accepts it, Escape closes
+ * the popup.
+ */
+public class AutoCompleter {
+    private static final int MAX_SUGGESTIONS = 6;
+
+    private final JTextField field;
+    private final Function<String, List<String>> provider;
+    private final JPopupMenu popup;
+    private final JList<String> list;
+    private boolean accepting;
+
+    private AutoCompleter(JTextField field, Function<String, List<String>> provider) {
+        this.field = field;
+        this.provider = provider;
+
+        list = new JList<>();
+        list.setFont(Theme.FONT_BODY);
+        list.setBackground(Theme.SURFACE);
+        list.setForeground(Theme.TEXT_PRIMARY);
+        list.setSelectionBackground(Theme.PRIMARY_DARK);
+        list.setSelectionForeground(Color.WHITE);
+        list.setFocusable(false);
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+
+        popup = new JPopupMenu();
+        popup.setFocusable(false);
+        popup.setBorder(BorderFactory.createLineBorder(Theme.SURFACE_HIGHLIGHT));
+        popup.add(list);
+
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                accept();
+            }
+        });
+
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                scheduleUpdate();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                scheduleUpdate();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                scheduleUpdate();
+            }
+        });
+
+        field.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                popup.setVisible(false);
+            }
+        });
+
+        bindKey(KeyEvent.VK_DOWN, "autocompleteDown", () -> moveSelection(1));
+        bindKey(KeyEvent.VK_UP, "autocompleteUp", () -> moveSelection(-1));
+        bindKey(KeyEvent.VK_ENTER, "autocompleteAccept", this::accept);
+        bindKey(KeyEvent.VK_ESCAPE, "autocompleteClose", () -> popup.setVisible(false));
+    }
+
+    /**
+     * Attaches autocomplete to a text field.
+     *
+     * @param field    The field to complete.
+     * @param provider Returns suggestions for the current text.
+     */
+    public static void attach(JTextField field, Function<String, List<String>> provider) {
+        new AutoCompleter(field, provider);
+    }
+
+    private void bindKey(int keyCode, String name, Runnable action) {
+        field.getInputMap(JComponent.WHEN_FOCUSED).put(KeyStroke.getKeyStroke(keyCode, 0), name);
+        field.getActionMap().put(name, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                action.run();
+            }
+
+            @Override
+            public boolean isEnabled() {
+                // Let the field handle the key normally when no popup is shown
+                return popup.isVisible() || keyCode == KeyEvent.VK_DOWN;
+            }
+        });
+    }
+
+    private void scheduleUpdate() {
+        if (!accepting) {
+            // The document must not be touched while it is notifying listeners
+            SwingUtilities.invokeLater(this::updateSuggestions);
+        }
+    }
+
+    private void updateSuggestions() {
+        String text = field.getText().trim();
+        if (text.isEmpty() || !field.isShowing() || !field.hasFocus()) {
+            popup.setVisible(false);
+            return;
+        }
+
+        List<String> suggestions = provider.apply(text);
+        if (suggestions.isEmpty() || (suggestions.size() == 1 && suggestions.get(0).equalsIgnoreCase(text))) {
+            popup.setVisible(false);
+            return;
+        }
+        if (suggestions.size() > MAX_SUGGESTIONS) {
+            suggestions = suggestions.subList(0, MAX_SUGGESTIONS);
+        }
+
+        list.setListData(suggestions.toArray(new String[0]));
+        list.setVisibleRowCount(suggestions.size());
+        list.setSelectedIndex(0);
+        popup.setPopupSize(field.getWidth(), list.getPreferredScrollableViewportSize().height + 4);
+        popup.show(field, 0, field.getHeight());
+    }
+
+    private void moveSelection(int delta) {
+        if (!popup.isVisible()) {
+            updateSuggestions();
+            return;
+        }
+        int size = list.getModel().getSize();
+        if (size > 0) {
+            int index = Math.floorMod(list.getSelectedIndex() + delta, size);
+            list.setSelectedIndex(index);
+            list.ensureIndexIsVisible(index);
+        }
+    }
+
+    private void accept() {
+        String value = list.getSelectedValue();
+        popup.setVisible(false);
+        if (value != null) {
+            accepting = true;
+            try {
+                field.setText(value);
+            } finally {
+                accepting = false;
+            }
+        }
+    }
+}
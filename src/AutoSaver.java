@@ -0,0 +1,222 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind saver that persists users on a background thread.
+ * Changes are coalesced over a short window so a burst of edits results in
+ * one write per user, and nothing is written on the Event Dispatch Thread.
+ * Users whose write fails are queued again and retried with exponential
+ * backoff, so a full disk or a locked file does not lose changes. A final flush runs on logout and when the JVM shuts down.
+ */
+public class AutoSaver {
+    private static final long COALESCE_MS = 500;
+    private static final long MAX_RETRY_MS = 60_000;
+
+    private final StorageBackend storage;
+    private final ScheduledExecutorService executor;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final UserChangeListener listener = this::markDirty;
+
+    // Guarded by this
+    private final Map<String, User> pending = new LinkedHashMap<>();
+    private boolean drainScheduled;
+    private long pendingMutations;
+    private long retryDelayMs = COALESCE_MS;
+
+    // Metrics, guarded by this
+    private long writeCount;
+    private long batchCount;
+    private long failedWrites;
+    private long coalescedMutations;
+    private long totalWriteNanos;
+    private long maxWriteNanos;
+    private long lastWriteNanos;
+
+    /**
+     * Creates a saver that writes through the given backend.
+     *
+     * @param storage The backend to save users to.
+     */
+    public AutoSaver(StorageBackend storage) {
+        this.storage = storage;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "autosave-shutdown"));
+    }
+
+    /**
+     * Starts saving a user automatically whenever it changes.
+     *
+     * @param user The user to watch.
+     */
+    public void watch(User user) {
+        user.addChangeListener(listener);
+    }
+
+    /**
+     * Stops watching a user. Pending changes are still written by the next
+     * drain or flush.
+     *
+     * @param user The user to stop watching.
+     */
+    public void unwatch(User user) {
+        user.removeChangeListener(listener);
+    }
+
+    /**
+     * Queues a user for saving after the coalescing window.
+     *
+     * @param user The user that changed.
+     */
+    public synchronized void markDirty(User user) {
+        pending.put(user.getUsername(), user);
+        pendingMutations++;
+        scheduleDrain(COALESCE_MS);
+    }
+
+    private void scheduleDrain(long delayMs) {
+        if (!drainScheduled && !executor.isShutdown()) {
+            drainScheduled = true;
+            executor.schedule(this::drain, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes all pending users immediately on the calling thread.
+     */
+    public void flush() {
+        drain();
+    }
+
+    /**
+     * Flushes pending writes and stops the background thread.
+     */
+    public void shutdown() {
+        flush();
+        executor.shutdown();
+    }
+
+    private void drain() {
+        writeLock.lock();
+        try {
+            List<User> batch;
+            synchronized (this) {
+                drainScheduled = false;
+                batch = new ArrayList<>(pending.values());
+                coalescedMutations += Math.max(0, pendingMutations - batch.size());
+                pendingMutations = 0;
+                pending.clear();
+            }
+
+            batch.removeIf(user -> !user.isDirty());
+            if (batch.isEmpty()) {
+                return;
+            }
+            // One batch per drain, so GROUP_COMMIT syncs all files together
+            long start = System.nanoTime();
+            int saved = storage.saveAll(batch);
+            recordWrite(System.nanoTime() - start, saved, batch.size() - saved);
+            if (saved < batch.size()) {
+                requeueFailed(batch);
+            } else {
+                resetRetryDelay();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Puts users that are still dirty after a save back in the queue. A user
+     * changed during the save is already queued again by its listener.
+     */
+    private synchronized void requeueFailed(List<User> batch) {
+        for (User user : batch) {
+            if (user.isDirty()) {
+                pending.putIfAbsent(user.getUsername(), user);
+            }
+        }
+        scheduleDrain(retryDelayMs);
+        retryDelayMs = Math.min(MAX_RETRY_MS, retryDelayMs * 2);
+    }
+
+    private synchronized void resetRetryDelay() {
+        retryDelayMs = COALESCE_MS;
+    }
+
+    private synchronized void recordWrite(long nanos, int saved, int failed) {
+        failedWrites += failed;
+        if (saved == 0) {
+            return;
+        }
+        writeCount += saved;
+        batchCount++;
+        totalWriteNanos += nanos;
+        lastWriteNanos = nanos;
+        maxWriteNanos = Math.max(maxWriteNanos, nanos);
+    }
+
+    /**
+     * Returns the number of users waiting to be written.
+     */
+    public synchronized int getQueueDepth() {
+        return pending.size();
+    }
+
+    /**
+     * Returns the number of changes recorded since the last drain.
+     */
+    public synchronized long getPendingMutations() {
+        return pendingMutations;
+    }
+
+    public synchronized long getWriteCount() {
+        return writeCount;
+    }
+
+    public synchronized long getFailedWrites() {
+        return failedWrites;
+    }
+
+    /**
+     * Returns how many changes were absorbed into another change's write.
+     */
+    public synchronized long getCoalescedMutations() {
+        return coalescedMutations;
+    }
+
+    /**
+     * Returns the latency of the most recent write batch.
+     */
+    public synchronized double getLastWriteMillis() {
+        return lastWriteNanos / 1_000_000.0;
+    }
+
+    public synchronized double getMaxWriteMillis() {
+        return maxWriteNanos / 1_000_000.0;
+    }
+
+    public synchronized double getAverageWriteMillis() {
+        return batchCount == 0 ? 0 : totalWriteNanos / 1_000_000.0 / batchCount;
+    }
+
+    /**
+     * Formats the saver metrics for logging.
+     *
+     * @return A one-line summary.
+     */
+    public synchronized String getMetricsSummary() {
+        return String.format("queue=%d pending=%d writes=%d failed=%d coalesced=%d avg=%.2fms max=%.2fms",
+                pending.size(), pendingMutations, writeCount, failedWrites, coalescedMutations,
+                getAverageWriteMillis(), getMaxWriteMillis());
+    }
+}
@@ -0,0 +1,233 @@
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches pre-rendered, anti-aliased decorations (rounded rectangles, circles)
+ * used by the custom widgets.
+ * Images are keyed by size, colors and device scale, so every widget sharing
+ * the same look (e.g. rows in a long transaction list) reuses one raster
+ * instead of re-running the shape fills on every paint.
+ * <p>
+ * The cache is bounded by the memory its rasters use rather than by entry
+ * count, since one window-sized panel background costs as much as thousands
+ * of small buttons. Least recently used images are dropped first, and an
+ * image too large to share the budget is drawn without being cached.
+ */
+public class BackgroundCache {
+    // ARGB rasters, 4 bytes per pixel
+    private static final long MAX_BYTES = 16L * 1024 * 1024;
+    private static final long MAX_IMAGE_BYTES = MAX_BYTES / 4;
+
+    private static final int SHAPE_ROUND_RECT = 0;
+    private static final int SHAPE_CIRCLE = 1;
+
+    private static final Map<Key, BufferedImage> CACHE = new LinkedHashMap<>(64, 0.75f, true);
+    private static long bytes;
+
+    private static long hits;
+    private static long misses;
+
+    /**
+     * Paints a filled rounded rectangle with an optional outline.
+     *
+     * @param g           The graphics context of the component.
+     * @param width       The width in pixels.
+     * @param height      The height in pixels.
+     * @param radius      The corner radius in pixels.
+     * @param fill        The fill color (null for no fill).
+     * @param border      The outline color (null for no outline).
+     * @param strokeWidth The outline stroke width.
+     * @param borderInset The offset of the outline from the component edge.
+     */
+    public static void paintRoundRect(Graphics g, int width, int height, int radius, Color fill, Color border,
+            float strokeWidth, int borderInset) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        paint(g, new Key(SHAPE_ROUND_RECT, width, height, radius, fill, border, strokeWidth, borderInset,
+                scaleOf(g)));
+    }
+
+    /**
+     * Paints a filled circle with an optional outline, anchored at the origin.
+     *
+     * @param g           The graphics context of the component.
+     * @param diameter    The circle diameter in pixels.
+     * @param fill        The fill color (null for no fill).
+     * @param border      The outline color (null for no outline).
+     * @param strokeWidth The outline stroke width.
+     */
+    public static void paintCircle(Graphics g, int diameter, Color fill, Color border, float strokeWidth) {
+        if (diameter <= 0) {
+            return;
+        }
+        paint(g, new Key(SHAPE_CIRCLE, diameter, diameter, 0, fill, border, strokeWidth, 0, scaleOf(g)));
+    }
+
+    /**
+     * Drops all cached images (e.g. after a theme change).
+     */
+    public static synchronized void clear() {
+        CACHE.clear();
+        bytes = 0;
+    }
+
+    public static synchronized long getHits() {
+        return hits;
+    }
+
+    public static synchronized long getMisses() {
+        return misses;
+    }
+
+    public static synchronized int size() {
+        return CACHE.size();
+    }
+
+    public static synchronized long getBytes() {
+        return bytes;
+    }
+
+    private static void paint(Graphics g, Key key) {
+        BufferedImage image;
+        synchronized (BackgroundCache.class) {
+            image = CACHE.get(key);
+            if (image == null) {
+                misses++;
+                image = render(key);
+                long size = bytesOf(image);
+                if (size <= MAX_IMAGE_BYTES) {
+                    CACHE.put(key, image);
+                    bytes += size;
+                    evictOverBudget();
+                }
+            } else {
+                hits++;
+            }
+        }
+        g.drawImage(image, 0, 0, key.width, key.height, null);
+    }
+
+    private static void evictOverBudget() {
+        Iterator<BufferedImage> it = CACHE.values().iterator();
+        while (bytes > MAX_BYTES && it.hasNext()) {
+            bytes -= bytesOf(it.next());
+            it.remove();
+        }
+    }
+
+    private static long bytesOf(BufferedImage image) {
+        return 4L * image.getWidth() * image.getHeight();
+    }
+
+    private static double scaleOf(Graphics g) {
+        if (g instanceof Graphics2D) {
+            AffineTransform tx = ((Graphics2D) g).getTransform();
+            return Math.max(1.0, tx.getScaleX());
+        }
+        return 1.0;
+    }
+
+    private static BufferedImage render(Key key) {
+        int w = (int) Math.ceil(key.width * key.scale);
+        int h = (int) Math.ceil(key.height * key.scale);
+        BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE);
+
+        Graphics2D g2 = image.createGraphics();
+        g2.scale(key.scale, key.scale);
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+
+        if (key.shape == SHAPE_CIRCLE) {
+            if (key.fill != null) {
+                g2.setColor(key.fill);
+                g2.fillOval(0, 0, key.width, key.height);
+            }
+            if (key.border != null) {
+                g2.setColor(key.border);
+                g2.setStroke(new BasicStroke(key.strokeWidth));
+                g2.drawOval(0, 0, key.width, key.height);
+            }
+        } else {
+            if (key.fill != null) {
+                g2.setColor(key.fill);
+                g2.fillRoundRect(0, 0, key.width, key.height, key.radius, key.radius);
+            }
+            if (key.border != null) {
+                int inset = key.borderInset;
+                g2.setColor(key.border);
+                g2.setStroke(new BasicStroke(key.strokeWidth));
+                g2.drawRoundRect(inset, inset, key.width - 1 - inset, key.height - 1 - inset, key.radius,
+                        key.radius);
+            }
+        }
+
+        g2.dispose();
+        return image;
+    }
+
+    /**
+     * Identifies one rendered decoration.
+     */
+    private static final class Key {
+        private final int shape;
+        private final int width;
+        private final int height;
+        private final int radius;
+        private final Color fill;
+        private final Color border;
+        private final float strokeWidth;
+        private final int borderInset;
+        private final double scale;
+
+        Key(int shape, int width, int height, int radius, Color fill, Color border, float strokeWidth,
+                int borderInset, double scale) {
+            this.shape = shape;
+            this.width = width;
+            this.height = height;
+            this.radius = radius;
+            this.fill = fill;
+            this.border = border;
+            this.strokeWidth = strokeWidth;
+            this.borderInset = borderInset;
+            this.scale = scale;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key k = (Key) o;
+            return shape == k.shape && width == k.width && height == k.height && radius == k.radius
+                    && strokeWidth == k.strokeWidth && borderInset == k.borderInset && scale == k.scale
+                    && rgba(fill) == rgba(k.fill) && rgba(border) == rgba(k.border)
+                    && (fill == null) == (k.fill == null) && (border == null) == (k.border == null);
+        }
+
+        @Override
+        public int hashCode() {
+            int h = shape;
+            h = 31 * h + width;
+            h = 31 * h + height;
+            h = 31 * h + radius;
+            h = 31 * h + rgba(fill);
+            h = 31 * h + rgba(border);
+            h = 31 * h + Float.floatToIntBits(strokeWidth);
+            h = 31 * h + borderInset;
+            h = 31 * h + Double.hashCode(scale);
+            return h;
+        }
+
+        private static int rgba(Color c) {
+            return c == null ? 0 : c.getRGB();
+        }
+    }
+}
@@ -0,0 +1,255 @@
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Raises budget alerts as soon as a change pushes month-to-date spending
+ * past a threshold (80% and 100% by default), instead of waiting for a
+ * panel refresh to rescan the history.
+ * <p>
+ * The engine listens to user change events and reads the month-to-date
+ * spend from the user's running month and category totals, so each event
+ * costs O(budgets) no matter how long the history is. It remembers how
+ * many thresholds each budget has already crossed this month, so an alert
+ * fires once per crossing; dropping back below (e.g. after a removal) arms
+ * it again. When the clock moves into a new month the crossed levels are
+ * simply cleared, since the running totals are already kept per month.
+ */
+public class BudgetAlertEngine implements UserChangeListener {
+    private static final double[] DEFAULT_THRESHOLDS = { 0.8, 1.0 };
+    private static final String OVERALL = "";
+
+    /**
+     * A budget crossing one of the thresholds.
+     */
+    public static final class Alert {
+        private final String category;
+        private final YearMonth month;
+        private final double threshold;
+        private final double spent;
+        private final double budget;
+
+        Alert(String category, YearMonth month, double threshold, double spent, double budget) {
+            this.category = category;
+            this.month = month;
+            this.threshold = threshold;
+            this.spent = spent;
+            this.budget = budget;
+        }
+
+        /**
+         * Returns the category, or null for the overall monthly budget.
+         */
+        public String getCategory() {
+            return category;
+        }
+
+        public YearMonth getMonth() {
+            return month;
+        }
+
+        /**
+         * Returns the crossed threshold as a fraction of the budget.
+         */
+        public double getThreshold() {
+            return threshold;
+        }
+
+        public double getSpent() {
+            return spent;
+        }
+
+        public double getBudget() {
+            return budget;
+        }
+
+        /**
+         * Formats the alert for display.
+         *
+         * @return A one-line message.
+         */
+        public String getMessage() {
+            String what = threshold >= 1 ? "is over" : String.format("has reached %.0f%% of", threshold * 100);
+            return String.format("%s spending %s its budget: %s of %s.", category == null ? "Monthly" : category,
+                    what, FinanceManager.formatCurrency(spent), FinanceManager.formatCurrency(budget));
+        }
+
+        @Override
+        public String toString() {
+            return getMessage();
+        }
+    }
+
+    /**
+     * Receives alerts on the thread that changed the user.
+     */
+    public interface AlertListener {
+        void budgetAlert(User user, Alert alert);
+    }
+
+    /**
+     * Thresholds already crossed this month, per budget.
+     */
+    private static final class Levels {
+        private YearMonth month;
+        private final Map<String, Integer> crossed = new HashMap<>();
+    }
+
+    private final Clock clock;
+    private final double[] thresholds;
+    private final List<AlertListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Guarded by this
+    private final Map<String, User> watched = new HashMap<>();
+    private final Map<String, Levels> levels = new HashMap<>();
+
+    /**
+     * Creates an engine alerting at 80% and 100% of each budget.
+     *
+     * @param clock The clock deciding the current month.
+     */
+    public BudgetAlertEngine(Clock clock) {
+        this(clock, DEFAULT_THRESHOLDS);
+    }
+
+    /**
+     * Creates an engine with custom thresholds.
+     *
+     * @param clock      The clock deciding the current month.
+     * @param thresholds Fractions of the budget, e.g. 0.5, 0.9, 1.0.
+     */
+    public BudgetAlertEngine(Clock clock, double... thresholds) {
+        this.clock = clock;
+        this.thresholds = thresholds.clone();
+        Arrays.sort(this.thresholds);
+    }
+
+    public void addAlertListener(AlertListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeAlertListener(AlertListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Starts alerting for a user. Budgets already past a threshold are
+     * recorded without alerting, so logging in does not replay old alerts.
+     *
+     * @param user The user to watch.
+     */
+    public void watch(User user) {
+        synchronized (this) {
+            watched.put(user.getUsername(), user);
+            levels.remove(user.getUsername());
+            evaluate(user);
+        }
+        user.addChangeListener(this);
+    }
+
+    /**
+     * Stops alerting for a user.
+     *
+     * @param user The user to stop watching.
+     */
+    public void unwatch(User user) {
+        user.removeChangeListener(this);
+        synchronized (this) {
+            watched.remove(user.getUsername());
+            levels.remove(user.getUsername());
+        }
+    }
+
+    @Override
+    public void userChanged(User user) {
+        List<Alert> alerts;
+        synchronized (this) {
+            if (!watched.containsKey(user.getUsername())) {
+                return;
+            }
+            alerts = evaluate(user);
+        }
+        for (Alert alert : alerts) {
+            for (AlertListener listener : listeners) {
+                listener.budgetAlert(user, alert);
+            }
+        }
+    }
+
+    /**
+     * Moves every watched user into the current month if the clock has
+     * passed a month boundary. Called by a scheduler at the boundary; a
+     * change event after the boundary has the same effect.
+     */
+    public void checkRollover() {
+        List<User> users;
+        synchronized (this) {
+            users = new ArrayList<>(watched.values());
+        }
+        for (User user : users) {
+            userChanged(user);
+        }
+    }
+
+    /**
+     * Compares the user's month-to-date spending against each budget and
+     * returns alerts for thresholds crossed since the last evaluation.
+     * The first evaluation for a user only records the current levels.
+     */
+    private List<Alert> evaluate(User user) {
+        List<Alert> alerts = new ArrayList<>();
+        LocalDate today = LocalDate.now(clock);
+        YearMonth month = YearMonth.from(today);
+        Levels userLevels = levels.get(user.getUsername());
+        boolean notify = userLevels != null;
+        if (userLevels == null) {
+            userLevels = new Levels();
+            userLevels.month = month;
+            levels.put(user.getUsername(), userLevels);
+        } else if (!month.equals(userLevels.month)) {
+            userLevels.month = month;
+            userLevels.crossed.clear();
+        }
+
+        double budget = user.getMonthlyBudget();
+        if (budget > 0) {
+            // Recurring bills later this month are not spent yet
+            double spent = FinanceManager.calculateMonthTotals(user, month, today)[1];
+            check(userLevels, OVERALL, null, month, spent, budget, notify, alerts);
+        } else {
+            userLevels.crossed.remove(OVERALL);
+        }
+        Map<String, Double> budgets = user.getCategoryBudgets();
+        for (Map.Entry<String, Double> entry : budgets.entrySet()) {
+            double spent = FinanceManager.calculateCategorySpending(user, entry.getKey(), month, today);
+            check(userLevels, entry.getKey().toLowerCase(Locale.ROOT), entry.getKey(), month, spent,
+                    entry.getValue(), notify, alerts);
+        }
+        if (userLevels.crossed.size() > budgets.size() + 1) {
+            // A category budget was removed
+            userLevels.crossed.keySet().removeIf(key -> !key.equals(OVERALL) && budgets.keySet().stream()
+                    .noneMatch(category -> category.equalsIgnoreCase(key)));
+        }
+        return alerts;
+    }
+
+    private void check(Levels userLevels, String key, String category, YearMonth month, double spent,
+            double budget, boolean notify, List<Alert> alerts) {
+        int level = 0;
+        while (level < thresholds.length && spent >= budget * thresholds[level]) {
+            level++;
+        }
+        Integer previous = userLevels.crossed.put(key, level);
+        if (notify && level > (previous == null ? 0 : previous)) {
+            // Report only the highest threshold crossed by this change
+            alerts.add(new Alert(category, month, thresholds[level - 1], spent, budget));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Measures CategoryRuleEngine throughput against a naive loop that checks
+ * every rule with String.contains, and checks both agree on whether a name
+ * matches at all.
+ * Usage: java CategorizationBenchmark [rules] [names]
+ */
+public class CategorizationBenchmark {
+
+    public static void main(String[] args) {
+        int ruleCount = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int nameCount = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        Random random = new Random(42);
+
+        CategoryRuleEngine engine = CategoryRuleEngine.withSystemRules();
+        List<String> keywords = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < ruleCount; i++) {
+            String keyword = randomWord(random, 4 + random.nextInt(6));
+            keywords.add(keyword);
+            engine.addRule(keyword, "Category" + (i % 40), true);
+        }
+        engine.categorize("warm up"); // Builds the failure links
+        double buildMillis = (System.nanoTime() - start) / 1e6;
+
+        String[] names = new String[nameCount];
+        for (int i = 0; i < nameCount; i++) {
+            String merchant = random.nextInt(4) == 0 ? keywords.get(random.nextInt(keywords.size()))
+                    : randomWord(random, 6 + random.nextInt(6));
+            names[i] = "POS " + merchant.toUpperCase(Locale.ROOT) + " #" + random.nextInt(10000) + " TORONTO ON";
+        }
+
+        for (int i = 0; i < Math.min(nameCount, 100_000); i++) {
+            engine.categorize(names[i]); // Warm-up
+        }
+        start = System.nanoTime();
+        int matched = 0;
+        for (String name : names) {
+            if (engine.categorize(name) != null) {
+                matched++;
+            }
+        }
+        double engineSeconds = (System.nanoTime() - start) / 1e9;
+
+        // The naive loop is far slower, so time it on a sample
+        int sample = Math.min(nameCount, 20_000);
+        int mismatches = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < sample; i++) {
+            String lower = names[i].toLowerCase(Locale.ROOT);
+            boolean naive = false;
+            for (int k = 0; k < keywords.size() && !naive; k++) {
+                naive = lower.contains(" " + keywords.get(k));
+            }
+            if (naive && engine.categorize(names[i]) == null) {
+                mismatches++;
+            }
+        }
+        double naiveSeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d rules (built in %.1f ms), %d names, %d matched%n", engine.getRuleCount(),
+                buildMillis, nameCount, matched);
+        System.out.printf("%-12s %14s%n", "method", "names/sec");
+        System.out.printf("%-12s %14.0f%n", "automaton", nameCount / engineSeconds);
+        System.out.printf("%-12s %14.0f%n", "contains", sample / naiveSeconds);
+        if (mismatches > 0) {
+            System.err.println(mismatches + " names matched by the naive loop were missed by the engine");
+        }
+    }
+
+    private static String randomWord(Random random, int length) {
+        char[] word = new char[length];
+        for (int i = 0; i < length; i++) {
+            word[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(word);
+    }
+}
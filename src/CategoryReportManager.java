@@ -1,3 +1,4 @@
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,4 +28,22 @@ public class CategoryReportManager {
         return categoryMap;
     }
 
+    /**
+     * Aggregates a user's expenses by category, including recurring expense
+     * occurrences up to a date.
+     * 
+     * @param user    The user.
+     * @param through The last day of recurring occurrences to count.
+     * @return A map where keys are category names and values are total amounts.
+     */
+    public static Map<String, Double> getCategoryBreakdown(User user, LocalDate through) {
+        Map<String, Double> categoryMap = getCategoryBreakdown(user.getTransactions());
+        for (RecurringTransaction rule : user.getRecurringTransactions()) {
+            double total = rule.isIncome() ? 0 : rule.totalBetween(rule.getStartDate(), through);
+            if (total > 0) {
+                categoryMap.merge(rule.getCategoryOrSource(), total, Double::sum);
+            }
+        }
+        return categoryMap;
+    }
 }
@@ -0,0 +1,302 @@
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Assigns categories to transaction names from keyword rules using an
+ * Aho-Corasick automaton, so a name is matched against every rule in one
+ * pass over its characters regardless of how many rules exist.
+ * <p>
+ * Keywords match case-insensitively as whole words ("uber" matches
+ * "UBER *TRIP" but not "TUBERS", and "metro" does not match "METROPOLITAN"). When several rules match, user rules win
+ * over system rules, then the longest keyword wins, then the earliest match.
+ * <p>
+ * Adding or removing a rule only updates that keyword's path in the trie,
+ * but any change marks every failure and output link stale: the next lookup
+ * relinks the whole trie once, however many rules changed in between.
+ * Lookups may run on several threads at once.
+ */
+public class CategoryRuleEngine {
+    private static final String[][] SYSTEM_RULES = {
+            { "uber", "Transport" }, { "lyft", "Transport" }, { "shell", "Transport" },
+            { "esso", "Transport" }, { "petro", "Transport" }, { "parking", "Transport" },
+            { "transit", "Transport" }, { "presto", "Transport" },
+            { "starbucks", "Food" }, { "tim hortons", "Food" }, { "mcdonald", "Food" },
+            { "subway", "Food" }, { "restaurant", "Food" }, { "cafe", "Food" }, { "pizza", "Food" },
+            { "doordash", "Food" }, { "skip the dishes", "Food" }, { "uber eats", "Food" },
+            { "loblaws", "Groceries" }, { "sobeys", "Groceries" }, { "metro", "Groceries" },
+            { "no frills", "Groceries" }, { "costco", "Groceries" }, { "walmart", "Groceries" },
+            { "grocery", "Groceries" },
+            { "netflix", "Entertainment" }, { "spotify", "Entertainment" }, { "cineplex", "Entertainment" },
+            { "steam", "Entertainment" }, { "disney", "Entertainment" },
+            { "amazon", "Shopping" }, { "amzn", "Shopping" }, { "best buy", "Shopping" },
+            { "ikea", "Shopping" },
+            { "rogers", "Utilities" }, { "bell", "Utilities" }, { "telus", "Utilities" },
+            { "hydro", "Utilities" }, { "enbridge", "Utilities" },
+            { "rent", "Housing" }, { "mortgage", "Housing" },
+            { "pharmacy", "Health" }, { "shoppers drug", "Health" }, { "dental", "Health" },
+            { "payroll", "Salary" }, { "salary", "Salary" }, { "interest", "Interest" },
+            { "e-transfer", "Transfers" }, { "etransfer", "Transfers" } };
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, String> userRules = new LinkedHashMap<>();
+    private final Map<String, String> systemRules = new LinkedHashMap<>();
+    private final Node root = new Node(0);
+    private boolean linksDirty;
+
+    /**
+     * Creates an engine preloaded with the built-in system rules.
+     *
+     * @return A new engine.
+     */
+    public static CategoryRuleEngine withSystemRules() {
+        CategoryRuleEngine engine = new CategoryRuleEngine();
+        for (String[] rule : SYSTEM_RULES) {
+            engine.addRule(rule[0], rule[1], false);
+        }
+        return engine;
+    }
+
+    /**
+     * Adds or replaces a rule.
+     *
+     * @param keyword  The text to look for in transaction names.
+     * @param category The category to assign.
+     * @param userRule true for a user-defined rule, which beats system rules.
+     */
+    public void addRule(String keyword, String category, boolean userRule) {
+        String key = normalize(keyword);
+        if (key.isEmpty() || category == null || category.trim().isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            (userRule ? userRules : systemRules).put(key, category.trim());
+            Node node = root;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.childOrCreate(key.charAt(i));
+            }
+            node.refreshOutput(key, userRules, systemRules);
+            linksDirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a rule. Trie nodes are kept; the keyword simply stops matching.
+     *
+     * @param keyword  The rule's keyword.
+     * @param userRule true to remove a user rule, false for a system rule.
+     * @return true if the rule existed.
+     */
+    public boolean removeRule(String keyword, boolean userRule) {
+        String key = normalize(keyword);
+        lock.writeLock().lock();
+        try {
+            if ((userRule ? userRules : systemRules).remove(key) == null) {
+                return false;
+            }
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            if (node != null) {
+                node.refreshOutput(key, userRules, systemRules);
+            }
+            // Output links of other nodes may point through this one
+            linksDirty = true;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a copy of the user-defined rules, keyword to category.
+     */
+    public Map<String, String> getUserRules() {
+        lock.readLock().lock();
+        try {
+            return new LinkedHashMap<>(userRules);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getRuleCount() {
+        lock.readLock().lock();
+        try {
+            return userRules.size() + systemRules.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the category for a transaction name.
+     *
+     * @param name The transaction name, e.g. a bank merchant description.
+     * @return The best matching rule's category, or null if none match.
+     */
+    public String categorize(String name) {
+        if (name == null || name.isEmpty()) {
+            return null;
+        }
+        lockLinked();
+        try {
+            Node state = root;
+            Node best = null;
+            for (int i = 0; i < name.length(); i++) {
+                char c = Character.toLowerCase(name.charAt(i));
+                while (state != root && state.child(c) == null) {
+                    state = state.fail;
+                }
+                Node next = state.child(c);
+                state = next == null ? root : next;
+
+                // Walk this state and its shorter suffixes that end a keyword
+                for (Node match = state.category != null ? state : state.output; match != null;
+                        match = match.output) {
+                    int start = i - match.depth + 1;
+                    if (atWordStart(name, start) && atWordEnd(name, i + 1) && better(match, best)) {
+                        best = match;
+                    }
+                }
+            }
+            return best == null ? null : best.category;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean atWordStart(String text, int start) {
+        return start == 0 || !Character.isLetterOrDigit(text.charAt(start - 1));
+    }
+
+    private static boolean atWordEnd(String text, int end) {
+        return end == text.length() || !Character.isLetterOrDigit(text.charAt(end));
+    }
+
+    private static boolean better(Node candidate, Node best) {
+        if (best == null) {
+            return true;
+        }
+        if (candidate.userRule != best.userRule) {
+            return candidate.userRule;
+        }
+        return candidate.depth > best.depth;
+    }
+
+    /**
+     * Takes the read lock with every link up to date. A stale trie is
+     * relinked under the write lock, which is then downgraded to the read
+     * lock so no rule change can slip in before the caller matches.
+     */
+    private void lockLinked() {
+        lock.readLock().lock();
+        if (!linksDirty) {
+            return;
+        }
+        lock.readLock().unlock();
+        lock.writeLock().lock();
+        try {
+            if (linksDirty) {
+                buildLinks();
+                linksDirty = false;
+            }
+            lock.readLock().lock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Breadth-first pass setting each node's failure link (longest proper
+     * suffix that is also a trie path) and output link (nearest suffix node
+     * that ends a live keyword).
+     */
+    private void buildLinks() {
+        Deque<Node> queue = new ArrayDeque<>();
+        root.fail = root;
+        root.output = null;
+        for (int i = 0; i < root.size; i++) {
+            Node child = root.children[i];
+            child.fail = root;
+            child.output = null;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            for (int i = 0; i < node.size; i++) {
+                char c = node.labels[i];
+                Node child = node.children[i];
+                Node fail = node.fail;
+                while (fail != root && fail.child(c) == null) {
+                    fail = fail.fail;
+                }
+                Node target = fail.child(c);
+                child.fail = target == null ? root : target;
+                child.output = child.fail.category != null ? child.fail : child.fail.output;
+                queue.add(child);
+            }
+        }
+    }
+
+    private static String normalize(String keyword) {
+        return keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Trie node with sorted child arrays; most nodes have one or two children.
+     */
+    private static final class Node {
+        private final int depth;
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        private int size;
+        private Node fail;
+        private Node output;
+        private String category;
+        private boolean userRule;
+
+        Node(int depth) {
+            this.depth = depth;
+        }
+
+        Node child(char c) {
+            int pos = Arrays.binarySearch(labels, 0, size, c);
+            return pos >= 0 ? children[pos] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int pos = Arrays.binarySearch(labels, 0, size, c);
+            if (pos >= 0) {
+                return children[pos];
+            }
+            int insert = -pos - 1;
+            if (size == labels.length) {
+                int capacity = Math.max(2, size * 2);
+                labels = Arrays.copyOf(labels, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(labels, insert, labels, insert + 1, size - insert);
+            System.arraycopy(children, insert, children, insert + 1, size - insert);
+            Node node = new Node(depth + 1);
+            labels[insert] = c;
+            children[insert] = node;
+            size++;
+            return node;
+        }
+
+        void refreshOutput(String key, Map<String, String> userRules, Map<String, String> systemRules) {
+            String user = userRules.get(key);
+            userRule = user != null;
+            category = user != null ? user : systemRules.get(key);
+        }
+    }
+}
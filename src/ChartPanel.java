@@ -0,0 +1,83 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ * Base class for the custom-painted report charts.
+ * The chart is rendered once into an off-screen image and repainted from it
+ * until the data or the component size changes.
+ */
+public abstract class ChartPanel extends JComponent {
+    private BufferedImage cache;
+    private double cacheScale;
+
+    /**
+     * Creates a chart with the given preferred height.
+     *
+     * @param height The preferred height in pixels.
+     */
+    public ChartPanel(int height) {
+        setOpaque(false);
+        setPreferredSize(new Dimension(300, height));
+        setMaximumSize(new Dimension(Integer.MAX_VALUE, height));
+    }
+
+    /**
+     * Discards the cached image so the next paint re-renders the chart.
+     * Subclasses call this whenever their data changes.
+     */
+    protected void invalidateChart() {
+        cache = null;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        int w = getWidth();
+        int h = getHeight();
+        if (w <= 0 || h <= 0) {
+            return;
+        }
+
+        double scale = 1.0;
+        if (g instanceof Graphics2D) {
+            AffineTransform tx = ((Graphics2D) g).getTransform();
+            scale = Math.max(1.0, tx.getScaleX());
+        }
+
+        int pw = (int) Math.ceil(w * scale);
+        int ph = (int) Math.ceil(h * scale);
+        if (cache == null || cache.getWidth() != pw || cache.getHeight() != ph || cacheScale != scale) {
+            cache = new BufferedImage(pw, ph, BufferedImage.TYPE_INT_ARGB_PRE);
+            cacheScale = scale;
+            Graphics2D g2 = cache.createGraphics();
+            g2.scale(scale, scale);
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+            renderChart(g2, w, h);
+            g2.dispose();
+        }
+        g.drawImage(cache, 0, 0, w, h, null);
+    }
+
+    /**
+     * Draws the chart contents.
+     *
+     * @param g2     Graphics of the off-screen image, in component coordinates.
+     * @param width  The component width.
+     * @param height The component height.
+     */
+    protected abstract void renderChart(Graphics2D g2, int width, int height);
+
+    /**
+     * Draws a centered placeholder message for charts without data.
+     */
+    protected static void drawEmptyMessage(Graphics2D g2, String message, int width, int height) {
+        g2.setFont(Theme.FONT_BODY);
+        g2.setColor(Theme.TEXT_SECONDARY);
+        FontMetrics fm = g2.getFontMetrics();
+        g2.drawString(message, (width - fm.stringWidth(message)) / 2, (height + fm.getAscent()) / 2);
+    }
+}
@@ -0,0 +1,157 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Frequency-weighted prefix trie used to autocomplete categories and sources.
+ * Every node caches the top K completions of its subtree, refreshed along the
+ * changed path on each update, so a lookup costs O(prefix length + k).
+ * Matching is case-insensitive; suggestions keep the first-seen spelling.
+ */
+public class CompletionTrie {
+    private static final int TOP_K = 8;
+
+    private final Node root = new Node();
+
+    /**
+     * Records one more use of a term.
+     *
+     * @param term The category or source name.
+     */
+    public void add(String term) {
+        update(term, 1);
+    }
+
+    /**
+     * Records several uses of a term at once, e.g. for a bulk import.
+     * A negative count records removals.
+     *
+     * @param term  The category or source name.
+     * @param count The change in use count.
+     */
+    public void add(String term, int count) {
+        if (count != 0) {
+            update(term, count);
+        }
+    }
+
+    /**
+     * Records one less use of a term. Terms that reach zero stop being suggested.
+     *
+     * @param term The category or source name.
+     */
+    public void remove(String term) {
+        update(term, -1);
+    }
+
+    /**
+     * Returns the most frequently used terms starting with the prefix.
+     *
+     * @param prefix Case-insensitive prefix.
+     * @param limit  The maximum number of suggestions (at most 8).
+     * @return Suggestions, most frequent first.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        Node node = find(prefix == null ? "" : prefix.trim());
+        List<String> results = new ArrayList<>();
+        if (node == null) {
+            return results;
+        }
+        for (int i = 0; i < node.topSize && results.size() < limit; i++) {
+            results.add(node.top[i].display);
+        }
+        return results;
+    }
+
+    /**
+     * Looks up the stored spelling of a term, ignoring case.
+     *
+     * @param term The term to look up.
+     * @return The existing spelling, or null if the term is not in use.
+     */
+    public String canonical(String term) {
+        Node node = find(term == null ? "" : term.trim());
+        return node != null && node.count > 0 ? node.display : null;
+    }
+
+    /**
+     * Returns how many times a term is in use.
+     */
+    public int frequency(String term) {
+        Node node = find(term == null ? "" : term.trim());
+        return node == null ? 0 : node.count;
+    }
+
+    private Node find(String text) {
+        String key = text.toLowerCase(Locale.ROOT);
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        return node;
+    }
+
+    private void update(String term, int delta) {
+        if (term == null || term.trim().isEmpty()) {
+            return;
+        }
+        String display = term.trim();
+        String key = display.toLowerCase(Locale.ROOT);
+
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null) {
+                if (delta < 0) {
+                    return; // Unknown term
+                }
+                child = new Node();
+                node.children.put(key.charAt(i), child);
+            }
+            node = child;
+            path[i + 1] = node;
+        }
+
+        node.count = Math.max(0, node.count + delta);
+        if (node.count == 0) {
+            node.display = null;
+        } else if (node.display == null) {
+            node.display = display;
+        }
+
+        // Refresh cached completions from the changed node up to the root
+        for (int i = path.length - 1; i >= 0; i--) {
+            path[i].refreshTop();
+        }
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private int count;
+        private String display;
+        private Node[] top = new Node[0];
+        private int topSize;
+
+        void refreshTop() {
+            Node[] candidates = new Node[TOP_K * (children.size() + 1)];
+            int n = 0;
+            if (count > 0) {
+                candidates[n++] = this;
+            }
+            for (Node child : children.values()) {
+                for (int i = 0; i < child.topSize; i++) {
+                    candidates[n++] = child.top[i];
+                }
+            }
+            Arrays.sort(candidates, 0, n, (a, b) -> a.count != b.count ? Integer.compare(b.count, a.count)
+                    : a.display.compareToIgnoreCase(b.display));
+            topSize = Math.min(n, TOP_K);
+            top = Arrays.copyOf(candidates, topSize);
+        }
+    }
+}
@@ -0,0 +1,535 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Imports bank statement CSV files into a user's history as a pipeline:
+ * <ol>
+ * <li>a reader decodes the file through a fixed-size NIO buffer and hands
+ * out chunks of lines,</li>
+ * <li>worker threads parse chunks into Income/Expense objects,</li>
+ * <li>the calling thread validates, removes rows that are already in the
+ * history, and adds the rest to the User in large batches.</li>
+ * </ol>
+ * Stages are linked by bounded queues, so a slow stage holds back the ones
+ * before it and memory stays bounded no matter how large the file is.
+ * <p>
+ * The first line must be a header. Recognized columns (case-insensitive):
+ * date; description/name/payee/memo; amount (negative = expense) or
+ * debit/withdrawal and credit/deposit; and optionally category. Rows
+ * without a category are categorized by the user's keyword rules.
+ * Quoted fields may contain commas but not line breaks.
+ */
+public class CsvImporter {
+    private static final int READ_BUFFER_BYTES = 256 * 1024;
+    private static final int CHUNK_LINES = 2000;
+    private static final int INSERT_BATCH = 10000;
+    private static final String DEFAULT_CATEGORY = "Uncategorized";
+    private static final String DEFAULT_SOURCE = "Imported";
+    // Rows matching an existing transaction this many days apart are reported
+    private static final int FUZZY_WINDOW_DAYS = 3;
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("M/d/yyyy"),
+            DateTimeFormatter.ofPattern("yyyy/M/d"),
+            DateTimeFormatter.ofPattern("d MMM yyyy", Locale.ENGLISH));
+
+    // Marks the end of a queue
+    private static final Chunk END = new Chunk(null, 0);
+    private static final Parsed PARSED_END = new Parsed(null, 0, 0);
+
+    private final int workers;
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    // First error from the reader or a parse worker; fails the whole import
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+    /**
+     * Receives progress updates on the importing thread.
+     */
+    public interface ProgressListener {
+        /**
+         * Called after each inserted batch and once at the end.
+         *
+         * @param bytesRead  Bytes of the file consumed so far.
+         * @param totalBytes The file size.
+         * @param imported   Transactions added so far.
+         */
+        void progress(long bytesRead, long totalBytes, int imported);
+    }
+
+    /**
+     * Summary of a finished or cancelled import.
+     */
+    public static final class Result {
+        private final int imported;
+        private final int duplicates;
+        private final int possibleDuplicates;
+        private final int invalid;
+        private final boolean cancelled;
+        private final long millis;
+
+        Result(int imported, int duplicates, int possibleDuplicates, int invalid, boolean cancelled, long millis) {
+            this.imported = imported;
+            this.duplicates = duplicates;
+            this.possibleDuplicates = possibleDuplicates;
+            this.invalid = invalid;
+            this.cancelled = cancelled;
+            this.millis = millis;
+        }
+
+        public int getImported() {
+            return imported;
+        }
+
+        public int getDuplicates() {
+            return duplicates;
+        }
+
+        /**
+         * Returns how many imported rows resemble an existing transaction
+         * dated a few days apart (e.g. overlapping statements with shifted
+         * posting dates).
+         */
+        public int getPossibleDuplicates() {
+            return possibleDuplicates;
+        }
+
+        public int getInvalid() {
+            return invalid;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "%d imported, %d duplicates skipped, %d possible duplicates, %d invalid rows%s (%d ms)",
+                    imported, duplicates, possibleDuplicates, invalid, cancelled ? ", cancelled" : "", millis);
+        }
+    }
+
+    /**
+     * Creates an importer using one parse worker per spare CPU core.
+     */
+    public CsvImporter() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * Creates an importer with a fixed number of parse workers.
+     *
+     * @param workers The number of parsing threads.
+     */
+    public CsvImporter(int workers) {
+        this.workers = Math.max(1, workers);
+    }
+
+    /**
+     * Asks a running import to stop after the current batch. Batches already
+     * added stay in the user's history.
+     */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    /**
+     * Imports a CSV file into the user's history, blocking until done.
+     *
+     * @param file     The CSV file.
+     * @param user     The user to add transactions to.
+     * @param listener Receives progress updates; may be null.
+     * @return A summary of the import.
+     * @throws IOException if the file cannot be read, has no usable header,
+     *                     or a row could not be processed. Batches added
+     *                     before the failure stay in the user's history.
+     */
+    public Result importFile(Path file, User user, ProgressListener listener) throws IOException {
+        long start = System.currentTimeMillis();
+        cancelled.set(false);
+        failure.set(null);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long totalBytes = channel.size();
+            BufferedReader reader = new BufferedReader(Channels.newReader(channel,
+                    StandardCharsets.UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+                            .onUnmappableCharacter(CodingErrorAction.REPLACE),
+                    READ_BUFFER_BYTES));
+
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                return new Result(0, 0, 0, 0, false, System.currentTimeMillis() - start);
+            }
+            Columns columns = Columns.fromHeader(splitLine(stripBom(headerLine)));
+            columns.rules = user::suggestCategoryForName;
+
+            BlockingQueue<Chunk> chunks = new ArrayBlockingQueue<>(workers * 2);
+            BlockingQueue<Parsed> parsed = new ArrayBlockingQueue<>(workers * 2);
+            ExecutorService pool = Executors.newFixedThreadPool(workers + 1, r -> {
+                Thread thread = new Thread(r, "csv-import");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            try {
+                pool.execute(() -> readChunks(reader, channel, chunks));
+                for (int i = 0; i < workers; i++) {
+                    pool.execute(() -> parseChunks(columns, chunks, parsed));
+                }
+                Result result = insert(user, parsed, totalBytes, listener, start);
+                Exception error = failure.get();
+                if (error instanceof IOException) {
+                    throw (IOException) error;
+                } else if (error != null) {
+                    throw new IOException("Could not process the CSV file: " + error.getMessage(), error);
+                }
+                return result;
+            } finally {
+                // Stops the reader loop; the interrupt from shutdownNow wakes
+                // any stage blocked on a queue
+                cancelled.set(true);
+                pool.shutdownNow();
+                try {
+                    pool.awaitTermination(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private void readChunks(BufferedReader reader, FileChannel channel, BlockingQueue<Chunk> chunks) {
+        try {
+            List<String> lines = new ArrayList<>(CHUNK_LINES);
+            String line;
+            while (!cancelled.get() && (line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    lines.add(line);
+                }
+                if (lines.size() == CHUNK_LINES) {
+                    chunks.put(new Chunk(lines, channel.position()));
+                    lines = new ArrayList<>(CHUNK_LINES);
+                }
+            }
+            if (!lines.isEmpty()) {
+                chunks.put(new Chunk(lines, channel.position()));
+            }
+        } catch (IOException e) {
+            fail(e); // The workers still get their end markers below
+        } catch (InterruptedException e) {
+            return;
+        }
+        try {
+            // One end marker per worker
+            for (int i = 0; i < workers; i++) {
+                chunks.put(END);
+            }
+        } catch (InterruptedException e) {
+            // Import is shutting down
+        }
+    }
+
+    private void parseChunks(Columns columns, BlockingQueue<Chunk> chunks, BlockingQueue<Parsed> parsed) {
+        try {
+            Chunk chunk;
+            while ((chunk = chunks.take()) != END) {
+                List<Transaction> transactions = new ArrayList<>(chunk.lines.size());
+                int invalid = 0;
+                for (String line : chunk.lines) {
+                    Transaction transaction = columns.parse(splitLine(line));
+                    if (transaction == null) {
+                        invalid++;
+                    } else {
+                        transactions.add(transaction);
+                    }
+                }
+                parsed.put(new Parsed(transactions, invalid, chunk.bytesRead));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Import is shutting down
+        } catch (RuntimeException e) {
+            fail(e);
+        } finally {
+            // The inserting thread waits for one end marker per worker
+            if (!Thread.currentThread().isInterrupted()) {
+                try {
+                    parsed.put(PARSED_END);
+                } catch (InterruptedException e) {
+                    // Import is shutting down
+                }
+            }
+        }
+    }
+
+    private void fail(Exception e) {
+        failure.compareAndSet(null, e);
+        cancelled.set(true);
+    }
+
+    private Result insert(User user, BlockingQueue<Parsed> parsed, long totalBytes, ProgressListener listener,
+            long start) {
+        // A row is skipped only while the history has more same-day matches
+        // than earlier rows of this file already claimed, so a file may hold
+        // the same purchase twice but re-importing it adds nothing
+        DuplicateIndex added = new DuplicateIndex();
+        DuplicateIndex claimed = new DuplicateIndex();
+
+        int imported = 0;
+        int duplicates = 0;
+        int possibleDuplicates = 0;
+        int invalid = 0;
+        long bytesRead = 0;
+        int finishedWorkers = 0;
+        List<Transaction> batch = new ArrayList<>(INSERT_BATCH);
+
+        try {
+            while (finishedWorkers < workers && !cancelled.get()) {
+                Parsed result = parsed.take();
+                if (result == PARSED_END) {
+                    finishedWorkers++;
+                    continue;
+                }
+                invalid += result.invalid;
+                bytesRead = Math.max(bytesRead, result.bytesRead);
+                for (Transaction transaction : result.transactions) {
+                    int existing = user.countSimilarTransactions(transaction, 0) - added.count(transaction, 0);
+                    if (existing > claimed.count(transaction, 0)) {
+                        claimed.add(transaction);
+                        duplicates++;
+                    } else {
+                        if (user.countSimilarTransactions(transaction, FUZZY_WINDOW_DAYS)
+                                > added.count(transaction, FUZZY_WINDOW_DAYS)) {
+                            possibleDuplicates++; // Kept, but reported so the user can review
+                        }
+                        batch.add(transaction);
+                    }
+                }
+                if (batch.size() >= INSERT_BATCH) {
+                    imported += addBatch(user, batch, added);
+                    batch = new ArrayList<>(INSERT_BATCH);
+                    if (listener != null) {
+                        listener.progress(bytesRead, totalBytes, imported);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelled.set(true);
+        }
+
+        boolean wasCancelled = cancelled.get() && finishedWorkers < workers;
+        if (!wasCancelled && !batch.isEmpty()) {
+            imported += addBatch(user, batch, added);
+        }
+        if (listener != null) {
+            listener.progress(wasCancelled ? bytesRead : totalBytes, totalBytes, imported);
+        }
+        return new Result(imported, duplicates, possibleDuplicates, invalid, wasCancelled,
+                System.currentTimeMillis() - start);
+    }
+
+    private static int addBatch(User user, List<Transaction> batch, DuplicateIndex added) {
+        for (Transaction transaction : batch) {
+            added.add(transaction);
+        }
+        return user.addTransactions(batch);
+    }
+
+    private static String stripBom(String line) {
+        return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+
+    /**
+     * Splits one CSV line, honoring double-quoted fields and "" escapes.
+     *
+     * @param line The line to split.
+     * @return The field values.
+     */
+    static List<String> splitLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    /**
+     * Column positions found in the header row.
+     */
+    private static final class Columns {
+        private int date = -1;
+        private int name = -1;
+        private int amount = -1;
+        private int debit = -1;
+        private int credit = -1;
+        private int category = -1;
+        private Function<String, String> rules = name -> null;
+
+        static Columns fromHeader(List<String> header) throws IOException {
+            Columns columns = new Columns();
+            for (int i = 0; i < header.size(); i++) {
+                String column = header.get(i).toLowerCase(Locale.ROOT);
+                if (columns.date < 0 && column.contains("date")) {
+                    columns.date = i;
+                } else if (columns.name < 0 && (column.contains("description") || column.equals("name")
+                        || column.contains("payee") || column.contains("memo"))) {
+                    columns.name = i;
+                } else if (columns.amount < 0 && column.contains("amount")) {
+                    columns.amount = i;
+                } else if (columns.debit < 0 && (column.contains("debit") || column.contains("withdrawal"))) {
+                    columns.debit = i;
+                } else if (columns.credit < 0 && (column.contains("credit") || column.contains("deposit"))) {
+                    columns.credit = i;
+                } else if (columns.category < 0 && column.contains("category")) {
+                    columns.category = i;
+                }
+            }
+            if (columns.date < 0 || columns.name < 0 || (columns.amount < 0 && columns.debit < 0
+                    && columns.credit < 0)) {
+                throw new IOException("CSV header needs date, description and amount (or debit/credit) columns");
+            }
+            return columns;
+        }
+
+        /**
+         * Converts one row, or returns null if it is not a valid transaction.
+         */
+        Transaction parse(List<String> fields) {
+            LocalDate parsedDate = parseDate(field(fields, date));
+            String description = clean(field(fields, name));
+            if (parsedDate == null || description.isEmpty()) {
+                return null;
+            }
+
+            double value;
+            try {
+                if (amount >= 0) {
+                    value = parseAmount(field(fields, amount));
+                } else {
+                    String credited = field(fields, credit);
+                    String debited = field(fields, debit);
+                    value = !credited.isEmpty() ? parseAmount(credited) : -parseAmount(debited);
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (value == 0 || Double.isNaN(value) || Double.isInfinite(value)) {
+                return null;
+            }
+
+            String categoryValue = clean(field(fields, category));
+            if (categoryValue.isEmpty()) {
+                String suggested = rules.apply(description);
+                categoryValue = suggested == null ? "" : suggested;
+            }
+            if (value > 0) {
+                return new Income(description, value, categoryValue.isEmpty() ? DEFAULT_SOURCE : categoryValue,
+                        parsedDate);
+            }
+            return new Expense(description, -value, categoryValue.isEmpty() ? DEFAULT_CATEGORY : categoryValue,
+                    parsedDate);
+        }
+
+        /**
+         * Replaces the user file's field delimiter and line breaks, which
+         * would otherwise split the stored line.
+         */
+        private static String clean(String value) {
+            return value.replace('|', '/').replace('\r', ' ').replace('\n', ' ').trim();
+        }
+
+        private static String field(List<String> fields, int index) {
+            return index >= 0 && index < fields.size() ? fields.get(index) : "";
+        }
+
+        private static double parseAmount(String text) {
+            String cleaned = text.replace("$", "").replace(",", "").replace(" ", "");
+            if (cleaned.startsWith("(") && cleaned.endsWith(")")) {
+                cleaned = "-" + cleaned.substring(1, cleaned.length() - 1); // Accounting negative
+            }
+            return Double.parseDouble(cleaned);
+        }
+
+        private static LocalDate parseDate(String text) {
+            if (text.isEmpty()) {
+                return null;
+            }
+            for (DateTimeFormatter format : DATE_FORMATS) {
+                try {
+                    return LocalDate.parse(text, format);
+                } catch (DateTimeParseException e) {
+                    // Try the next format
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Chunk {
+        private final List<String> lines;
+        private final long bytesRead;
+
+        Chunk(List<String> lines, long bytesRead) {
+            this.lines = lines;
+            this.bytesRead = bytesRead;
+        }
+    }
+
+    private static final class Parsed {
+        private final List<Transaction> transactions;
+        private final int invalid;
+        private final long bytesRead;
+
+        Parsed(List<Transaction> transactions, int invalid, long bytesRead) {
+            this.transactions = transactions;
+            this.invalid = invalid;
+            this.bytesRead = bytesRead;
+        }
+    }
+}
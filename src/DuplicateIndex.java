@@ -0,0 +1,170 @@
+/**
+ * Counts transactions by a 64-bit hash of their content so a new
+ * transaction can be checked for duplicates without comparing it to the
+ * whole history.
+ * The content is the type, amount in cents, normalized name and normalized
+ * category/source; each (content, day) pair is one bucket, so a match within
+ * plus or minus N days probes 2N + 1 buckets. Buckets live in an
+ * open-addressing table of primitive longs, so lookups do not box.
+ * Not thread-safe; callers synchronize through the owning User.
+ */
+public class DuplicateIndex {
+    private static final int INITIAL_CAPACITY = 64;
+
+    // Parallel arrays: keys[i] == 0 marks a free slot; a zero count is a
+    // bucket whose transactions were all removed, reclaimed on resize
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int[] counts = new int[INITIAL_CAPACITY];
+    private int used;
+    private int size;
+
+    /**
+     * Adds a transaction to the index.
+     *
+     * @param transaction The transaction to add.
+     */
+    public void add(Transaction transaction) {
+        long key = bucketKey(contentHash(transaction), transaction.getDate().toEpochDay());
+        int slot = slotFor(key);
+        if (keys[slot] == 0) {
+            keys[slot] = key;
+            used++;
+        }
+        counts[slot]++;
+        size++;
+        if (used * 4 >= keys.length * 3) {
+            resize();
+        }
+    }
+
+    /**
+     * Removes a transaction from the index.
+     *
+     * @param transaction The transaction to remove.
+     */
+    public void remove(Transaction transaction) {
+        int slot = slotFor(bucketKey(contentHash(transaction), transaction.getDate().toEpochDay()));
+        if (keys[slot] != 0 && counts[slot] > 0) {
+            counts[slot]--;
+            size--;
+        }
+    }
+
+    /**
+     * Counts indexed transactions with the same content dated within the window.
+     *
+     * @param transaction The candidate transaction.
+     * @param windowDays  How many days before or after still count (0 = same day).
+     * @return The number of matching transactions.
+     */
+    public int count(Transaction transaction, int windowDays) {
+        long hash = contentHash(transaction);
+        long day = transaction.getDate().toEpochDay();
+        int matches = 0;
+        for (long d = day - windowDays; d <= day + windowDays; d++) {
+            int slot = slotFor(bucketKey(hash, d));
+            if (keys[slot] != 0) {
+                matches += counts[slot];
+            }
+        }
+        return matches;
+    }
+
+    private int slotFor(long key) {
+        int mask = keys.length - 1;
+        int slot = (int) key & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+        int live = 0;
+        for (int count : oldCounts) {
+            if (count > 0) {
+                live++;
+            }
+        }
+        int capacity = INITIAL_CAPACITY;
+        while (live * 2 >= capacity) {
+            capacity <<= 1;
+        }
+        keys = new long[capacity];
+        counts = new int[capacity];
+        used = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0 && oldCounts[i] > 0) {
+                int slot = slotFor(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+                used++;
+            }
+        }
+    }
+
+    public void clear() {
+        keys = new long[INITIAL_CAPACITY];
+        counts = new int[INITIAL_CAPACITY];
+        used = 0;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static long bucketKey(long contentHash, long epochDay) {
+        long key = mix(contentHash + epochDay * 0x9E3779B97F4A7C15L);
+        return key == 0 ? 1 : key; // 0 marks a free slot
+    }
+
+    /**
+     * Hashes everything that identifies a transaction except its date and id.
+     */
+    static long contentHash(Transaction transaction) {
+        long hash = 0xCBF29CE484222325L;
+        hash = hashNormalized(hash, transaction.getType());
+        hash = (hash ^ Math.round(transaction.getAmount() * 100)) * 0x100000001B3L;
+        hash = hashNormalized(hash, transaction.getName());
+        hash = hashNormalized(hash, transaction.getCategoryOrSource());
+        return mix(hash);
+    }
+
+    /**
+     * Hashes a string as if trimmed, lower-cased and with whitespace runs
+     * collapsed, without building the normalized copy.
+     */
+    private static long hashNormalized(long hash, String value) {
+        if (value != null) {
+            boolean pendingSpace = false;
+            boolean started = false;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    pendingSpace = started;
+                    continue;
+                }
+                if (pendingSpace) {
+                    hash = (hash ^ ' ') * 0x100000001B3L;
+                    pendingSpace = false;
+                }
+                hash = (hash ^ Character.toLowerCase(c)) * 0x100000001B3L;
+                started = true;
+            }
+        }
+        // Field separator so ("ab", "c") and ("a", "bc") differ
+        return (hash ^ 0xFFFF) * 0x100000001B3L;
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,83 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures save throughput for each FileManager durability mode.
+ * Usage: java DurabilityBenchmark [users] [transactionsPerUser] [rounds]
+ */
+public class DurabilityBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int userCount = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int transactionsPerUser = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        Path dir = Files.createTempDirectory("durability-bench");
+        String originalDir = FileManager.getDataDirectory();
+        FileManager.DurabilityMode originalMode = FileManager.getDurabilityMode();
+        FileManager.setDataDirectory(dir.toString());
+
+        try {
+            List<User> users = new ArrayList<>();
+            for (int u = 0; u < userCount; u++) {
+                User user = new User("bench" + u, "password");
+                for (int t = 0; t < transactionsPerUser; t++) {
+                    user.addTransaction(new Expense("Item " + t, 10 + t % 50, "Category" + (t % 7),
+                            LocalDate.of(2024, 1, 1).plusDays(t % 365)));
+                }
+                users.add(user);
+            }
+
+            System.out.printf("%d users x %d transactions, %d rounds%n", userCount, transactionsPerUser, rounds);
+            System.out.printf("%-14s %12s %12s %10s%n", "mode", "saves/sec", "ms/round", "MB/sec");
+
+            for (FileManager.DurabilityMode mode : FileManager.DurabilityMode.values()) {
+                FileManager.setDurabilityMode(mode);
+                FileManager.saveUsers(users); // Warm-up
+
+                long start = System.nanoTime();
+                for (int r = 0; r < rounds; r++) {
+                    if (mode == FileManager.DurabilityMode.PER_WRITE) {
+                        for (User user : users) {
+                            FileManager.saveUser(user);
+                        }
+                    } else {
+                        FileManager.saveUsers(users);
+                    }
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                long bytes = 0;
+                for (User user : users) {
+                    bytes += FileManager.getUserFile(user.getUsername()).toFile().length();
+                }
+                int saves = userCount * rounds;
+                System.out.printf("%-14s %12.1f %12.2f %10.1f%n", mode, saves / seconds, seconds * 1000 / rounds,
+                        bytes * (double) rounds / seconds / (1024 * 1024));
+            }
+        } finally {
+            FileManager.setDataDirectory(originalDir);
+            FileManager.setDurabilityMode(originalMode);
+            deleteDirectory(dir.toFile());
+        }
+    }
+
+    private static void deleteDirectory(File dir) {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.isDirectory()) {
+                    deleteDirectory(file);
+                } else {
+                    file.delete();
+                }
+            }
+        }
+        dir.delete();
+    }
+}
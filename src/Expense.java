@@ -43,7 +43,9 @@ public class Expense extends Transaction {
             double amount = Double.parseDouble(parts[2]);
             String category = parts[3];
             LocalDate date = LocalDate.parse(parts[4]);
-            return new Expense(name, amount, category, date);
+            Expense expense = new Expense(name, amount, category, date);
+            expense.setId(parseId(parts));
+            return expense;
         }
         return null;
     }
@@ -1,62 +1,422 @@
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
 
 /**
  * Handles persistent storage of user data and transactions to the file system.
- * Data is stored in text files under the user_data/ directory.
+ * Data is stored in text files under the user_data/ directory, sharded into
+ * two levels of hex subdirectories by a hash of the username
+ * (user_data/3f/a2/alice.txt) so no single directory grows too large.
+ * Files left in the old flat layout are still found and are moved into
+ * their shard on the next save.
  */
 public class FileManager {
     private static final String DATA_DIR = "user_data/";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String REMOVED_PREFIX = "Removed|";
+
+    /**
+     * How strongly a save is forced to stable storage.
+     */
+    public enum DurabilityMode {
+        /** Atomic replace only; the OS decides when data reaches the disk. */
+        NONE,
+        /** One fsync pass per batch of saves (group commit). */
+        GROUP_COMMIT,
+        /** fsync every file and its directory as soon as it is written. */
+        PER_WRITE
+    }
+
+    private static volatile String dataDir = DATA_DIR;
+    private static volatile DurabilityMode durabilityMode = DurabilityMode.GROUP_COMMIT;
+
+    /**
+     * Changes the directory user files are stored in (e.g. for benchmarks).
+     * 
+     * @param directory The directory path.
+     */
+    public static void setDataDirectory(String directory) {
+        dataDir = directory.endsWith("/") ? directory : directory + "/";
+    }
+
+    public static String getDataDirectory() {
+        return dataDir;
+    }
+
+    public static void setDurabilityMode(DurabilityMode mode) {
+        durabilityMode = mode;
+    }
+
+    public static DurabilityMode getDurabilityMode() {
+        return durabilityMode;
+    }
 
     /**
      * Ensures the data directory exists; creates it if valid.
      */
     private static void ensureDataDirectory() {
-        File dir = new File(DATA_DIR);
+        File dir = new File(dataDir);
         if (!dir.exists()) {
             dir.mkdirs();
         }
     }
 
-    private static String getUserFilePath(String username) {
-        return DATA_DIR + username + ".txt";
+    /**
+     * Returns the sharded location of a user's file, whether or not it exists.
+     * 
+     * @param username The username.
+     * @return The path user_data/xx/yy/username.txt.
+     */
+    static Path getShardedPath(String username) {
+        int hash = shardHash(username);
+        return Paths.get(dataDir, hex(hash & 0xFF), hex((hash >>> 8) & 0xFF), username + ".txt");
+    }
+
+    private static Path getLegacyPath(String username) {
+        return Paths.get(dataDir, username + ".txt");
+    }
+
+    /**
+     * Finds the file currently holding a user's data: the sharded file if
+     * present, otherwise a legacy flat file, otherwise the sharded location.
+     * 
+     * @param username The username.
+     * @return The path to read from.
+     */
+    static Path getUserFile(String username) {
+        Path sharded = getShardedPath(username);
+        if (Files.exists(sharded)) {
+            return sharded;
+        }
+        Path legacy = getLegacyPath(username);
+        return Files.exists(legacy) ? legacy : sharded;
+    }
+
+    private static int shardHash(String username) {
+        // FNV-1a over the UTF-8 bytes; stable across JVMs unlike String.hashCode
+        int hash = 0x811C9DC5;
+        for (byte b : username.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x01000193;
+        }
+        return hash;
+    }
+
+    private static String hex(int value) {
+        return value < 0x10 ? "0" + Integer.toHexString(value) : Integer.toHexString(value);
     }
 
     /**
      * Saves a user's profile and transactions to a file.
+     * The file is replaced atomically, so readers never see a partial save.
      * 
      * @param user The User object to save.
      * @return true if save was successful, false otherwise.
      */
     public static boolean saveUser(User user) {
+        return saveUsers(Collections.singletonList(user)) == 1;
+    }
+
+    /**
+     * Saves several users as one batch. Each file is written to a temporary
+     * file and atomically renamed over the old one. In GROUP_COMMIT mode all
+     * files are forced to disk together before any rename.
+     * 
+     * @param users The users to save.
+     * @return The number of users saved successfully.
+     */
+    public static int saveUsers(Collection<User> users) {
         ensureDataDirectory();
-        String filePath = getUserFilePath(user.getUsername());
+        DurabilityMode mode = durabilityMode;
+        List<PendingWrite> written = new ArrayList<>();
+        int saved = 0;
 
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
-            writer.println("USERNAME:" + user.getUsername());
-            writer.println("PASSWORD:" + user.getPassword());
-            writer.println("BUDGET:" + user.getMonthlyBudget());
-            writer.println("SAVINGS_GOAL:" + user.getSavingsGoal());
-            if (user.getSavingsTargetDate() != null) {
-                writer.println("SAVINGS_TARGET_DATE:" + user.getSavingsTargetDate().toString());
+        for (User user : users) {
+            Path target = getShardedPath(user.getUsername());
+            Path temp = null;
+            long version = user.getVersion();
+            try {
+                Files.createDirectories(target.getParent());
+                // A unique name, so concurrent saves of one user never share a temp file
+                temp = Files.createTempFile(target.getParent(), target.getFileName() + ".", TEMP_SUFFIX);
+                writeUserFile(user, temp, mode == DurabilityMode.PER_WRITE);
+                if (mode == DurabilityMode.PER_WRITE) {
+                    commit(user, temp, target, version, true);
+                    saved++;
+                } else {
+                    written.add(new PendingWrite(user, temp, target, version));
+                }
+            } catch (IOException e) {
+                System.err.println("Error saving user data: " + e.getMessage());
+                if (temp != null) {
+                    deleteQuietly(temp);
+                }
             }
-            if (user.getSavingsTargetMonths() > 0) {
-                writer.println("SAVINGS_TARGET_MONTHS:" + user.getSavingsTargetMonths());
+        }
+        if (mode == DurabilityMode.PER_WRITE) {
+            return saved;
+        }
+
+        if (mode == DurabilityMode.GROUP_COMMIT) {
+            // Force every temp file before exposing any of them
+            for (PendingWrite write : written) {
+                try {
+                    force(write.temp);
+                } catch (IOException e) {
+                    System.err.println("Error syncing user data: " + e.getMessage());
+                    write.failed = true;
+                    deleteQuietly(write.temp);
+                }
+            }
+        }
+
+        Set<Path> directories = new LinkedHashSet<>();
+        List<String> committed = new ArrayList<>();
+        for (PendingWrite write : written) {
+            if (write.failed) {
+                continue;
+            }
+            try {
+                commit(write.user, write.temp, write.target, write.version, false);
+                directories.add(write.target.toAbsolutePath().getParent());
+                committed.add(write.user.getUsername());
+                saved++;
+            } catch (IOException e) {
+                System.err.println("Error saving user data: " + e.getMessage());
+                deleteQuietly(write.temp);
+            }
+        }
+        if (mode == DurabilityMode.GROUP_COMMIT) {
+            for (Path directory : directories) {
+                forceDirectory(directory);
+            }
+        }
+        // Only drop flat-layout files once their sharded copy is in place
+        for (String username : committed) {
+            deleteQuietly(getLegacyPath(username));
+        }
+        return saved;
+    }
+
+    private static void writeUserFile(User user, Path temp, boolean sync) throws IOException {
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            PrintWriter writer = new PrintWriter(
+                    new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), 64 * 1024)));
+            for (String line : formatProfile(user)) {
+                writer.println(line);
             }
             writer.println("TRANSACTIONS_START");
 
-            for (Transaction transaction : user.getTransactions()) {
+            for (Transaction transaction : user.getTransactionsSnapshot()) {
                 writer.println(transaction.formatForFile());
             }
 
             writer.println("TRANSACTIONS_END");
-            return true;
+            writer.flush();
+            if (writer.checkError()) {
+                throw new IOException("write failed for " + temp);
+            }
+            if (sync) {
+                channel.force(true);
+            }
+        }
+    }
+
+    private static void commit(User user, Path temp, Path target, long version, boolean syncDirectory)
+            throws IOException {
+        synchronized (user) {
+            if (version < user.getSavedVersion()) {
+                // A concurrent save of a newer version already replaced the file
+                deleteQuietly(temp);
+                return;
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            user.markSaved(version);
+        }
+        if (syncDirectory) {
+            forceDirectory(target.toAbsolutePath().getParent());
+            deleteQuietly(getLegacyPath(user.getUsername()));
+        }
+    }
+
+    private static void force(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    private static void forceDirectory(Path directory) {
+        // Makes the rename itself durable; not supported on every platform
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
         } catch (IOException e) {
-            System.err.println("Error saving user data: " + e.getMessage());
-            return false;
+            // Ignore: directories cannot be opened for sync on this platform
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // Best effort cleanup of a temporary file
+        }
+    }
+
+    /**
+     * A temporary file waiting to be committed over its target.
+     */
+    private static final class PendingWrite {
+        private final User user;
+        private final Path temp;
+        private final Path target;
+        private final long version;
+        private boolean failed;
+
+        PendingWrite(User user, Path temp, Path target, long version) {
+            this.user = user;
+            this.temp = temp;
+            this.target = target;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Formats a user's profile settings as "KEY:value" lines.
+     * Shared by every storage backend so profile fields stay in one place.
+     * 
+     * @param user The user to format.
+     * @return The profile lines, without transactions.
+     */
+    static List<String> formatProfile(User user) {
+        List<String> lines = new ArrayList<>();
+        lines.add("USERNAME:" + user.getUsername());
+        lines.add("PASSWORD:" + user.getPassword());
+        lines.add("BUDGET:" + user.getMonthlyBudget());
+        lines.add("SAVINGS_GOAL:" + user.getSavingsGoal());
+        if (user.getSavingsTargetDate() != null) {
+            lines.add("SAVINGS_TARGET_DATE:" + user.getSavingsTargetDate().toString());
+        }
+        if (user.getSavingsTargetMonths() > 0) {
+            lines.add("SAVINGS_TARGET_MONTHS:" + user.getSavingsTargetMonths());
+        }
+        for (Map.Entry<String, String> rule : user.getCategoryRules().entrySet()) {
+            lines.add("CATEGORY_RULE:" + rule.getKey() + "|" + rule.getValue());
+        }
+        for (RecurringTransaction rule : user.getRecurringTransactions()) {
+            lines.add("RECURRING:" + rule.formatForFile());
+        }
+        for (Map.Entry<String, Double> budget : user.getCategoryBudgets().entrySet()) {
+            lines.add("CATEGORY_BUDGET:" + budget.getKey() + "|" + budget.getValue());
+        }
+        return lines;
+    }
+
+    /**
+     * Builds a user from profile lines produced by formatProfile.
+     * 
+     * @param username The username.
+     * @param lines    The profile lines.
+     * @return A User without transactions, or null if no password was found.
+     * @throws NumberFormatException if a numeric field is malformed.
+     */
+    static User parseProfile(String username, List<String> lines) {
+        String password = null;
+        double budget = 0.0;
+        double savingsGoal = 0.0;
+        LocalDate savingsTargetDate = null;
+        int savingsTargetMonths = 0;
+        Map<String, String> categoryRules = new LinkedHashMap<>();
+        List<RecurringTransaction> recurring = new ArrayList<>();
+        Map<String, Double> categoryBudgets = new LinkedHashMap<>();
+
+        for (String line : lines) {
+            if (line.startsWith("USERNAME:")) {
+            } else if (line.startsWith("PASSWORD:")) {
+                password = line.substring("PASSWORD:".length());
+            } else if (line.startsWith("BUDGET:")) {
+                budget = Double.parseDouble(line.substring("BUDGET:".length()));
+            } else if (line.startsWith("SAVINGS_GOAL:")) {
+                savingsGoal = Double.parseDouble(line.substring("SAVINGS_GOAL:".length()));
+            } else if (line.startsWith("SAVINGS_TARGET_DATE:")) {
+                try {
+                    savingsTargetDate = LocalDate.parse(line.substring("SAVINGS_TARGET_DATE:".length()));
+                } catch (Exception e) {
+                }
+            } else if (line.startsWith("SAVINGS_TARGET_MONTHS:")) {
+                try {
+                    savingsTargetMonths = Integer.parseInt(line.substring("SAVINGS_TARGET_MONTHS:".length()));
+                } catch (Exception e) {
+                }
+            } else if (line.startsWith("CATEGORY_RULE:")) {
+                String rule = line.substring("CATEGORY_RULE:".length());
+                int separator = rule.lastIndexOf('|');
+                if (separator > 0) {
+                    categoryRules.put(rule.substring(0, separator), rule.substring(separator + 1));
+                }
+            } else if (line.startsWith("RECURRING:")) {
+                RecurringTransaction rule = RecurringTransaction.fromFileString(line.substring("RECURRING:".length()));
+                if (rule != null) {
+                    recurring.add(rule);
+                }
+            } else if (line.startsWith("CATEGORY_BUDGET:")) {
+                String entry = line.substring("CATEGORY_BUDGET:".length());
+                int separator = entry.lastIndexOf('|');
+                if (separator > 0) {
+                    try {
+                        categoryBudgets.put(entry.substring(0, separator),
+                                Double.parseDouble(entry.substring(separator + 1)));
+                    } catch (NumberFormatException e) {
+                    }
+                }
+            }
+        }
+
+        if (password == null) {
+            return null;
+        }
+        User user = new User(username, password);
+        user.setMonthlyBudget(budget);
+        user.setSavingsGoal(savingsGoal);
+        if (savingsTargetDate != null) {
+            user.setSavingsTargetDate(savingsTargetDate);
         }
+        if (savingsTargetMonths > 0) {
+            user.setSavingsTargetMonths(savingsTargetMonths);
+        }
+        for (Map.Entry<String, String> rule : categoryRules.entrySet()) {
+            user.addCategoryRule(rule.getKey(), rule.getValue());
+        }
+        for (RecurringTransaction rule : recurring) {
+            user.addRecurringTransaction(rule);
+        }
+        for (Map.Entry<String, Double> entry : categoryBudgets.entrySet()) {
+            user.setCategoryBudget(entry.getKey(), entry.getValue());
+        }
+        return user;
     }
 
     /**
@@ -66,46 +426,33 @@ public class FileManager {
      * @return The populated User object, or null if not found or error.
      */
     public static User loadUser(String username) {
-        String filePath = getUserFilePath(username);
-        File file = new File(filePath);
+        File file = getUserFile(username).toFile();
 
         if (!file.exists()) {
             return null;
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
             String line;
-            String password = null;
-            double budget = 0.0;
-            double savingsGoal = 0.0;
-            LocalDate savingsTargetDate = null;
-            int savingsTargetMonths = 0;
+            List<String> profile = new ArrayList<>();
             List<Transaction> transactions = new ArrayList<>();
-            boolean inTransactions = false;
+            List<Long> removals = new ArrayList<>();
+            boolean pastHeader = false;
 
             while ((line = reader.readLine()) != null) {
-                if (line.startsWith("USERNAME:")) {
-                } else if (line.startsWith("PASSWORD:")) {
-                    password = line.substring("PASSWORD:".length());
-                } else if (line.startsWith("BUDGET:")) {
-                    budget = Double.parseDouble(line.substring("BUDGET:".length()));
-                } else if (line.startsWith("SAVINGS_GOAL:")) {
-                    savingsGoal = Double.parseDouble(line.substring("SAVINGS_GOAL:".length()));
-                } else if (line.startsWith("SAVINGS_TARGET_DATE:")) {
-                    try {
-                        savingsTargetDate = LocalDate.parse(line.substring("SAVINGS_TARGET_DATE:".length()));
-                    } catch (Exception e) {
-                    }
-                } else if (line.startsWith("SAVINGS_TARGET_MONTHS:")) {
-                    try {
-                        savingsTargetMonths = Integer.parseInt(line.substring("SAVINGS_TARGET_MONTHS:".length()));
-                    } catch (Exception e) {
-                    }
-                } else if (line.equals("TRANSACTIONS_START")) {
-                    inTransactions = true;
+                if (line.equals("TRANSACTIONS_START")) {
+                    pastHeader = true;
                 } else if (line.equals("TRANSACTIONS_END")) {
-                    inTransactions = false;
-                } else if (inTransactions && !line.trim().isEmpty()) {
+                    // Appended transactions may follow the end marker
+                } else if (!pastHeader) {
+                    profile.add(line);
+                } else if (line.startsWith(REMOVED_PREFIX)) {
+                    Long id = parseRemovedId(line);
+                    if (id != null) {
+                        removals.add(id);
+                    }
+                } else if (!line.trim().isEmpty()) {
+                    // Lines after TRANSACTIONS_END were added by appendTransaction
                     Transaction transaction = parseTransaction(line);
                     if (transaction != null) {
                         transactions.add(transaction);
@@ -113,19 +460,15 @@ public class FileManager {
                 }
             }
 
-            if (password != null) {
-                User user = new User(username, password);
-                user.setMonthlyBudget(budget);
-                user.setSavingsGoal(savingsGoal);
-                if (savingsTargetDate != null) {
-                    user.setSavingsTargetDate(savingsTargetDate);
-                }
-                if (savingsTargetMonths > 0) {
-                    user.setSavingsTargetMonths(savingsTargetMonths);
-                }
+            User user = parseProfile(username, profile);
+            if (user != null) {
                 for (Transaction transaction : transactions) {
                     user.addTransaction(transaction);
                 }
+                for (long id : removals) {
+                    user.removeTransactionById(id);
+                }
+                user.markSaved(user.getVersion());
                 return user;
             }
         } catch (IOException e) {
@@ -137,11 +480,174 @@ public class FileManager {
         return null;
     }
 
+    /**
+     * Appends one transaction to an existing user file without rewriting it.
+     * The transaction must also have been added to the in-memory User; the
+     * next full save folds it back into the transaction section.
+     * 
+     * @param username    The owner of the file.
+     * @param transaction The transaction to append.
+     * @return true if the line was written, false if the user does not exist or
+     *         an error occurred.
+     */
+    public static boolean appendTransaction(String username, Transaction transaction) {
+        return appendLine(username, transaction.formatForFile());
+    }
+
+    /**
+     * Appends a removal marker for one transaction without rewriting the file.
+     * The transaction must already be removed from the in-memory User; the
+     * next full save drops both the transaction and the marker. The marker
+     * ends with a checksum of the id, so a torn write that shortens the id
+     * is ignored instead of removing a different transaction.
+     * 
+     * @param username      The owner of the file.
+     * @param transactionId The id of the removed transaction.
+     * @return true if the marker was written, false if the user does not exist
+     *         or an error occurred.
+     */
+    public static boolean appendRemoval(String username, long transactionId) {
+        String id = Long.toString(transactionId);
+        return appendLine(username, REMOVED_PREFIX + id + "|" + checksum(id));
+    }
+
+    private static String checksum(String text) {
+        CRC32 crc = new CRC32();
+        crc.update(text.getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+
+    private static boolean appendLine(String username, String text) {
+        Path target = getUserFile(username);
+        if (!Files.exists(target)) {
+            return false;
+        }
+        byte[] line = (text + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (durabilityMode != DurabilityMode.NONE) {
+                // A single append is its own batch
+                channel.force(false);
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error appending transaction: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Lists the usernames that have a data file.
+     * 
+     * @return Usernames in no particular order.
+     */
+    public static List<String> listUsers() {
+        Set<String> users = new LinkedHashSet<>();
+        File root = new File(dataDir);
+        File[] shards = root.listFiles(FileManager::isShardDirectory);
+        if (shards != null) {
+            for (File shard : shards) {
+                File[] subShards = shard.listFiles(FileManager::isShardDirectory);
+                if (subShards != null) {
+                    for (File subShard : subShards) {
+                        addUserFiles(subShard, users);
+                    }
+                }
+            }
+        }
+        addUserFiles(root, users); // Legacy flat files not yet migrated
+        return new ArrayList<>(users);
+    }
+
+    private static boolean isShardDirectory(File file) {
+        return file.isDirectory() && file.getName().length() == 2;
+    }
+
+    private static void addUserFiles(File directory, Set<String> users) {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".txt"));
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                users.add(name.substring(0, name.length() - ".txt".length()));
+            }
+        }
+    }
+
+    /**
+     * Moves every user file in the old flat layout into its shard directory.
+     * Files that already have a sharded copy are left untouched.
+     * 
+     * @return The number of files moved.
+     */
+    public static int migrateFlatLayout() {
+        File[] files = new File(dataDir).listFiles((dir, name) -> name.endsWith(".txt"));
+        if (files == null) {
+            return 0;
+        }
+        int moved = 0;
+        Set<Path> directories = new LinkedHashSet<>();
+        for (File file : files) {
+            String name = file.getName();
+            Path target = getShardedPath(name.substring(0, name.length() - ".txt".length()));
+            if (Files.exists(target)) {
+                System.err.println("Skipping " + name + ": sharded copy already exists");
+                continue;
+            }
+            try {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(file.toPath(), target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(file.toPath(), target);
+                }
+                directories.add(target.toAbsolutePath().getParent());
+                moved++;
+            } catch (IOException e) {
+                System.err.println("Error migrating " + name + ": " + e.getMessage());
+            }
+        }
+        if (durabilityMode != DurabilityMode.NONE) {
+            for (Path directory : directories) {
+                forceDirectory(directory);
+            }
+            forceDirectory(Paths.get(dataDir).toAbsolutePath());
+        }
+        return moved;
+    }
+
+    /**
+     * Parses the id on a removal line, or returns null if the line was cut
+     * short (e.g. by a crash during the append) and its checksum no longer
+     * matches.
+     */
+    private static Long parseRemovedId(String line) {
+        String[] parts = line.substring(REMOVED_PREFIX.length()).trim().split("\\|");
+        if (parts.length != 2 || !parts[1].equals(checksum(parts[0]))) {
+            return null;
+        }
+        try {
+            return Long.parseLong(parts[0]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses a transaction line, returning null for a torn or malformed line
+     * so the rest of the log still loads.
+     */
     private static Transaction parseTransaction(String line) {
-        if (line.startsWith("Income|")) {
-            return Income.fromFileString(line);
-        } else if (line.startsWith("Expense|")) {
-            return Expense.fromFileString(line);
+        try {
+            if (line.startsWith("Income|")) {
+                return Income.fromFileString(line);
+            } else if (line.startsWith("Expense|")) {
+                return Expense.fromFileString(line);
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            // Cut short, e.g. by a crash during the append
         }
         return null;
     }
@@ -153,8 +659,6 @@ public class FileManager {
      * @return true if the user data file exists, false otherwise.
      */
     public static boolean userExists(String username) {
-        String filePath = getUserFilePath(username);
-        File file = new File(filePath);
-        return file.exists();
+        return Files.exists(getShardedPath(username)) || Files.exists(getLegacyPath(username));
     }
 }
@@ -1,5 +1,7 @@
 import javax.swing.*;
 import java.awt.*;
+import java.time.Clock;
+import java.time.YearMonth;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -14,14 +16,40 @@ public class FinanceGUI implements PanelFactory.GUIController {
     private CardLayout cardLayout;
     private JPanel mainPanel;
     private User currentUser;
+    private final BudgetAlertEngine budgetAlerts;
+    private final MonthRolloverScheduler rolloverScheduler;
 
     // Panel cache for lazy loading
     private Map<String, JPanel> panelCache;
 
     public FinanceGUI() {
-        this.authManager = new AuthManager();
+        this(new TextFileStorage());
+    }
+
+    /**
+     * Creates the GUI using the given storage backend for user data.
+     * 
+     * @param storage The backend that loads and saves users.
+     */
+    public FinanceGUI(StorageBackend storage) {
+        this.authManager = new AuthManager(storage);
         this.currentUser = null;
         this.panelCache = new HashMap<>();
+        Clock clock = Clock.systemDefaultZone();
+        this.budgetAlerts = new BudgetAlertEngine(clock);
+        // Changes can come from background imports, so show alerts on the EDT
+        budgetAlerts.addAlertListener((user, alert) -> SwingUtilities.invokeLater(() -> {
+            if (user == currentUser) {
+                JOptionPane.showMessageDialog(mainFrame, alert.getMessage(), "Budget Alert",
+                        JOptionPane.WARNING_MESSAGE);
+            }
+        }));
+        this.rolloverScheduler = new MonthRolloverScheduler(clock);
+        rolloverScheduler.addRolloverListener((user, month, sealed) -> {
+            budgetAlerts.checkRollover();
+            SwingUtilities.invokeLater(this::refreshAllPanels);
+        });
+        rolloverScheduler.start();
         initializeGUI();
     }
 
@@ -121,6 +149,8 @@ public class FinanceGUI implements PanelFactory.GUIController {
     public boolean login(String username, String password) {
         if (authManager.login(username, password)) {
             currentUser = authManager.getCurrentUser();
+            budgetAlerts.watch(currentUser);
+            rolloverScheduler.watch(currentUser);
             showDashboard();
             return true;
         }
@@ -132,6 +162,8 @@ public class FinanceGUI implements PanelFactory.GUIController {
         AuthManager.RegistrationResult result = authManager.register(username, password);
         if (result == AuthManager.RegistrationResult.SUCCESS) {
             currentUser = authManager.getCurrentUser();
+            budgetAlerts.watch(currentUser);
+            rolloverScheduler.watch(currentUser);
             showDashboard();
         }
         return result;
@@ -140,6 +172,8 @@ public class FinanceGUI implements PanelFactory.GUIController {
     @Override
     public void logout() {
         if (currentUser != null) {
+            budgetAlerts.unwatch(currentUser);
+            rolloverScheduler.unwatch(currentUser);
             authManager.logout();
             currentUser = null;
             showLogin();
@@ -151,6 +185,11 @@ public class FinanceGUI implements PanelFactory.GUIController {
         return currentUser;
     }
 
+    @Override
+    public YearMonth getCurrentMonth() {
+        return rolloverScheduler.getCurrentMonth();
+    }
+
     @Override
     public void refreshAllPanels() {
         if (currentUser != null) {
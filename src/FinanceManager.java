@@ -1,5 +1,8 @@
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -65,6 +68,31 @@ public class FinanceManager {
         return new double[] { income, expenses };
     }
 
+    /**
+     * Calculates total income and expenses dated within a range, in a single
+     * pass and without building a filtered list.
+     *
+     * @param transactions List of transactions, e.g. a ScenarioView.
+     * @param from         The first day (inclusive).
+     * @param to           The last day (inclusive).
+     * @return Array where index 0 is income and index 1 is expenses.
+     */
+    public static double[] calculateTotals(List<Transaction> transactions, LocalDate from, LocalDate to) {
+        double income = 0.0;
+        double expenses = 0.0;
+        for (Transaction t : transactions) {
+            if (t.getDate().isBefore(from) || t.getDate().isAfter(to)) {
+                continue;
+            }
+            if (t instanceof Income) {
+                income += t.getAmount();
+            } else if (t instanceof Expense) {
+                expenses += t.getAmount();
+            }
+        }
+        return new double[] { income, expenses };
+    }
+
     /**
      * Calculates total expenses for the current month.
      * 
@@ -200,6 +228,34 @@ public class FinanceManager {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Filters transactions by a combination of text, type, category and date
+     * criteria.
+     * 
+     * @param transactions List of transactions.
+     * @param filter       The criteria to apply.
+     * @return Filtered list of transactions, in the original order.
+     */
+    public static List<Transaction> filterTransactions(List<Transaction> transactions, TransactionFilter filter) {
+        return transactions.stream()
+                .filter(filter::matches)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Filters a user's transactions, narrowing text queries through the
+     * user's search index before applying the remaining criteria.
+     * 
+     * @param user   The user whose history to search.
+     * @param filter The criteria to apply.
+     * @return Filtered list of transactions.
+     */
+    public static List<Transaction> searchTransactions(User user, TransactionFilter filter) {
+        List<Transaction> candidates = filter.getText() != null ? user.searchTransactions(filter.getText())
+                : user.getTransactions();
+        return filterTransactions(candidates, filter);
+    }
+
     /**
      * Calculates total income for a specific month and year.
      * 
@@ -231,4 +287,155 @@ public class FinanceManager {
                 .mapToDouble(Transaction::getAmount)
                 .sum();
     }
+
+    /**
+     * Totals the occurrences of recurring transactions between two dates.
+     * Occurrences are counted, not generated, so this costs O(1) per rule.
+     * 
+     * @param rules The recurring transactions.
+     * @param from  The first day (inclusive).
+     * @param to    The last day (inclusive).
+     * @return Array where index 0 is income and index 1 is expenses.
+     */
+    public static double[] calculateRecurringTotals(List<RecurringTransaction> rules, LocalDate from,
+            LocalDate to) {
+        double income = 0.0;
+        double expenses = 0.0;
+        for (RecurringTransaction rule : rules) {
+            if (rule.isIncome()) {
+                income += rule.totalBetween(from, to);
+            } else {
+                expenses += rule.totalBetween(from, to);
+            }
+        }
+        return new double[] { income, expenses };
+    }
+
+    /**
+     * Calculates income and expenses for a month, including every
+     * occurrence of the user's recurring transactions in that month. Uses
+     * the user's running month totals, so no transactions are scanned.
+     * 
+     * @param user  The user.
+     * @param month The month.
+     * @return Array where index 0 is income and index 1 is expenses.
+     */
+    public static double[] calculateMonthTotals(User user, YearMonth month) {
+        return calculateMonthTotals(user, month, month.atEndOfMonth());
+    }
+
+    /**
+     * Calculates income and expenses for a month, counting recurring
+     * occurrences only up to a date, e.g. month-to-date totals for alerts.
+     * 
+     * @param user    The user.
+     * @param month   The month.
+     * @param through The last day of recurring occurrences to count.
+     * @return Array where index 0 is income and index 1 is expenses.
+     */
+    public static double[] calculateMonthTotals(User user, YearMonth month, LocalDate through) {
+        double[] totals = user.getMonthTotals(month);
+        double[] recurring = calculateRecurringTotals(user.getRecurringTransactions(), month.atDay(1),
+                lastDayOf(month, through));
+        return new double[] { totals[0] + recurring[0], totals[1] + recurring[1] };
+    }
+
+    /**
+     * Calculates a user's balance including recurring occurrences up to a date.
+     * 
+     * @param user The user.
+     * @param asOf The last day of recurring occurrences to count, usually today.
+     * @return Net balance.
+     */
+    public static double calculateBalance(User user, LocalDate asOf) {
+        double[] recurring = calculateRecurringTotals(user.getRecurringTransactions(), LocalDate.MIN, asOf);
+        return user.getBalance() + recurring[0] - recurring[1];
+    }
+
+    /**
+     * Calculates this month's spending in one category, including recurring
+     * expenses in that category, from the user's running totals.
+     * 
+     * @param user     The user.
+     * @param category The expense category (case-insensitive).
+     * @param month    The month.
+     * @return The total spent in the category.
+     */
+    public static double calculateCategorySpending(User user, String category, YearMonth month) {
+        return calculateCategorySpending(user, category, month, month.atEndOfMonth());
+    }
+
+    /**
+     * Calculates a month's spending in one category, counting recurring
+     * expenses only up to a date.
+     * 
+     * @param user     The user.
+     * @param category The expense category (case-insensitive).
+     * @param month    The month.
+     * @param through  The last day of recurring occurrences to count.
+     * @return The total spent in the category.
+     */
+    public static double calculateCategorySpending(User user, String category, YearMonth month,
+            LocalDate through) {
+        double spent = user.getCategorySpending(category, month);
+        LocalDate last = lastDayOf(month, through);
+        for (RecurringTransaction rule : user.getRecurringTransactions()) {
+            if (!rule.isIncome() && rule.getCategoryOrSource().equalsIgnoreCase(category)) {
+                spent += rule.totalBetween(month.atDay(1), last);
+            }
+        }
+        return spent;
+    }
+
+    private static LocalDate lastDayOf(YearMonth month, LocalDate through) {
+        LocalDate end = month.atEndOfMonth();
+        return through.isBefore(end) ? through : end;
+    }
+
+    /**
+     * Checks if the user's expenses in a month are within their monthly
+     * budget, using running totals instead of rescanning the history.
+     * 
+     * @param user  The user.
+     * @param month The month to check.
+     * @return true if expenses are within budget (or no budget is set).
+     */
+    public static boolean isWithinBudget(User user, YearMonth month) {
+        double budget = user.getMonthlyBudget();
+        return budget == 0 || calculateMonthTotals(user, month)[1] <= budget;
+    }
+
+    /**
+     * Lists the categories whose spending this month exceeds their budget.
+     * 
+     * @param user  The user.
+     * @param month The month to check.
+     * @return The over-budget categories, in the order their budgets were set.
+     */
+    public static List<String> getOverBudgetCategories(User user, YearMonth month) {
+        List<String> over = new ArrayList<>();
+        for (Map.Entry<String, Double> budget : user.getCategoryBudgets().entrySet()) {
+            if (calculateCategorySpending(user, budget.getKey(), month) > budget.getValue()) {
+                over.add(budget.getKey());
+            }
+        }
+        return over;
+    }
+
+    /**
+     * Forecasts when the user's savings goal will be reached and how much
+     * must be saved per month to meet the target date. The trend is kept
+     * incrementally by the user, so this is O(1) in the history length.
+     * 
+     * @param user    The user.
+     * @param current The current month.
+     * @param today   Today's date, for the balance.
+     * @return The forecast.
+     */
+    public static SavingsProjection.Forecast projectSavings(User user, YearMonth current, LocalDate today) {
+        YearMonth next = current.plusMonths(1);
+        double[] recurring = calculateRecurringTotals(user.getRecurringTransactions(), next.atDay(1),
+                next.atEndOfMonth());
+        return user.forecastSavings(current, calculateBalance(user, today), recurring[0] - recurring[1]);
+    }
 }
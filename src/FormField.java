@@ -7,7 +7,7 @@ public class FormField {
      * Supported input types.
      */
     public enum FieldType {
-        TEXT, PASSWORD, NUMBER, DATE
+        TEXT, PASSWORD, NUMBER, DATE, CHOICE
     }
 
     private String name;
@@ -17,6 +17,7 @@ public class FormField {
     private boolean required;
     private String tooltip;
     private int columns;
+    private String[] options = new String[0];
 
     /**
      * Creates a new form field configuration.
@@ -79,4 +80,19 @@ public class FormField {
     public void setDefaultValue(String defaultValue) {
         this.defaultValue = defaultValue;
     }
+
+    public String[] getOptions() {
+        return options;
+    }
+
+    /**
+     * Sets the values offered by a CHOICE field.
+     * 
+     * @param options The choices, in display order.
+     * @return This field for chaining.
+     */
+    public FormField setOptions(String... options) {
+        this.options = options;
+        return this;
+    }
 }
@@ -96,6 +96,13 @@ public class FormPanel extends JPanel {
                 ((RoundedPasswordField) component).setBackground(Theme.SURFACE);
                 ((RoundedPasswordField) component).setCaretColor(Theme.PRIMARY);
                 break;
+            case CHOICE:
+                JComboBox<String> combo = new JComboBox<>(field.getOptions());
+                combo.setFont(Theme.FONT_BODY);
+                combo.setForeground(Theme.TEXT_PRIMARY);
+                combo.setBackground(Theme.SURFACE);
+                component = combo;
+                break;
             case NUMBER:
             case DATE:
             case TEXT:
@@ -111,6 +118,8 @@ public class FormPanel extends JPanel {
         if (field.getDefaultValue() != null && !field.getDefaultValue().isEmpty()) {
             if (component instanceof JTextField) {
                 ((JTextField) component).setText(field.getDefaultValue());
+            } else if (component instanceof JComboBox) {
+                ((JComboBox<?>) component).setSelectedItem(field.getDefaultValue());
             }
         }
 
@@ -163,6 +172,9 @@ public class FormPanel extends JPanel {
             return ((JTextField) component).getText().trim();
         } else if (component instanceof JPasswordField) {
             return new String(((JPasswordField) component).getPassword());
+        } else if (component instanceof JComboBox) {
+            Object selected = ((JComboBox<?>) component).getSelectedItem();
+            return selected == null ? "" : selected.toString();
         }
         return "";
     }
@@ -173,6 +185,8 @@ public class FormPanel extends JPanel {
             ((JTextField) component).setText(value);
         } else if (component instanceof JPasswordField) {
             ((JPasswordField) component).setText(value);
+        } else if (component instanceof JComboBox) {
+            ((JComboBox<?>) component).setSelectedItem(value);
         }
     }
 
@@ -182,6 +196,8 @@ public class FormPanel extends JPanel {
                 ((JTextField) component).setText("");
             } else if (component instanceof JPasswordField) {
                 ((JPasswordField) component).setText("");
+            } else if (component instanceof JComboBox && ((JComboBox<?>) component).getItemCount() > 0) {
+                ((JComboBox<?>) component).setSelectedIndex(0);
             }
         }
     }
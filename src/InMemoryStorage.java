@@ -0,0 +1,84 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps users in memory only. Intended for tests and benchmarks.
+ * Stored users are copies, so later edits to a loaded User do not leak into
+ * storage until it is saved again.
+ */
+public class InMemoryStorage implements StorageBackend {
+    private final Map<String, StoredUser> users = new ConcurrentHashMap<>();
+
+    @Override
+    public User load(String username) {
+        StoredUser stored = users.get(username);
+        if (stored == null) {
+            return null;
+        }
+        synchronized (stored) {
+            User user = FileManager.parseProfile(username, stored.profile);
+            if (user == null) {
+                return null;
+            }
+            for (Transaction transaction : stored.transactions) {
+                user.addTransaction(transaction);
+            }
+            user.markSaved(user.getVersion());
+            return user;
+        }
+    }
+
+    @Override
+    public boolean save(User user) {
+        long version = user.getVersion();
+        users.put(user.getUsername(),
+                new StoredUser(FileManager.formatProfile(user), new ArrayList<>(user.getTransactionsSnapshot())));
+        user.markSaved(version);
+        return true;
+    }
+
+    @Override
+    public boolean exists(String username) {
+        return users.containsKey(username);
+    }
+
+    @Override
+    public boolean appendTransaction(String username, Transaction transaction) {
+        StoredUser stored = users.get(username);
+        if (stored == null) {
+            return false;
+        }
+        synchronized (stored) {
+            stored.transactions.add(transaction);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean appendRemoval(String username, long transactionId) {
+        StoredUser stored = users.get(username);
+        if (stored == null) {
+            return false;
+        }
+        synchronized (stored) {
+            return stored.transactions.removeIf(t -> t.getId() == transactionId);
+        }
+    }
+
+    @Override
+    public List<String> listUsers() {
+        return new ArrayList<>(users.keySet());
+    }
+
+    private static final class StoredUser {
+        private final List<String> profile;
+        private final List<Transaction> transactions;
+
+        StoredUser(List<String> profile, List<Transaction> transactions) {
+            this.profile = profile;
+            this.transactions = transactions;
+        }
+    }
+}
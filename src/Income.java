@@ -43,7 +43,9 @@ public class Income extends Transaction {
             double amount = Double.parseDouble(parts[2]);
             String source = parts[3];
             LocalDate date = LocalDate.parse(parts[4]);
-            return new Income(name, amount, source, date);
+            Income income = new Income(name, amount, source, date);
+            income.setId(parseId(parts));
+            return income;
         }
         return null;
     }
@@ -0,0 +1,299 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binary backend made of a compact snapshot per user plus an append-only
+ * journal of transactions added or removed (by id) since that snapshot.
+ * Appends cost one small write; a full save writes a new snapshot under the
+ * next generation number, after which the old journal is ignored and deleted.
+ * Honors FileManager's durability mode for syncing.
+ */
+public class JournalStorage implements StorageBackend {
+    private static final int MAGIC = 0x46494E32; // "FIN2"
+    private static final byte OP_ADD = 1;
+    private static final byte OP_REMOVE = 2;
+    private static final byte KIND_INCOME = 1;
+    private static final byte KIND_EXPENSE = 2;
+
+    private final Path directory;
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a journal backend storing files in the given directory.
+     *
+     * @param directory The directory for snapshot and journal files.
+     */
+    public JournalStorage(String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    private Path snapshotPath(String username) {
+        return directory.resolve(username + ".snap");
+    }
+
+    private Path journalPath(String username, long generation) {
+        return directory.resolve(username + "." + generation + ".journal");
+    }
+
+    @Override
+    public User load(String username) {
+        Path snapshot = snapshotPath(username);
+        if (!Files.exists(snapshot)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+            if (in.readInt() != MAGIC) {
+                System.err.println("Error loading user data: bad snapshot header for " + username);
+                return null;
+            }
+            long generation = in.readLong();
+            int profileLines = in.readInt();
+            List<String> profile = new ArrayList<>(profileLines);
+            for (int i = 0; i < profileLines; i++) {
+                profile.add(in.readUTF());
+            }
+            User user = FileManager.parseProfile(username, profile);
+            if (user == null) {
+                return null;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                user.addTransaction(readTransaction(in));
+            }
+            replayJournal(user, journalPath(username, generation));
+            generations.put(username, generation);
+            user.markSaved(user.getVersion());
+            return user;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error loading user data: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void replayJournal(User user, Path journal) throws IOException {
+        if (!Files.exists(journal)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(journal)))) {
+            while (true) {
+                int op = in.read();
+                try {
+                    if (op == OP_ADD) {
+                        user.addTransaction(readTransaction(in));
+                    } else if (op == OP_REMOVE) {
+                        user.removeTransactionById(in.readLong());
+                    } else {
+                        break; // End of journal or unknown record
+                    }
+                } catch (EOFException e) {
+                    break; // Torn final record from a crash mid-append
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean save(User user) {
+        return saveAll(Collections.singletonList(user)) == 1;
+    }
+
+    @Override
+    public int saveAll(Collection<User> users) {
+        FileManager.DurabilityMode mode = FileManager.getDurabilityMode();
+        int saved = 0;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            System.err.println("Error saving user data: " + e.getMessage());
+            return 0;
+        }
+
+        for (User user : users) {
+            String username = user.getUsername();
+            long version = user.getVersion();
+            Path snapshot = snapshotPath(username);
+            Path temp = directory.resolve(username + ".snap.tmp");
+
+            try {
+                long oldGeneration = currentGeneration(username);
+                long newGeneration = oldGeneration + 1;
+                writeSnapshot(user, temp, newGeneration, mode != FileManager.DurabilityMode.NONE);
+                try {
+                    Files.move(temp, snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING);
+                }
+                if (mode == FileManager.DurabilityMode.PER_WRITE) {
+                    forceDirectory();
+                }
+                generations.put(username, newGeneration);
+                Files.deleteIfExists(journalPath(username, oldGeneration));
+                user.markSaved(version);
+                saved++;
+            } catch (IOException e) {
+                System.err.println("Error saving user data: " + e.getMessage());
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Best effort cleanup
+                }
+            }
+        }
+
+        if (mode == FileManager.DurabilityMode.GROUP_COMMIT && saved > 0) {
+            forceDirectory();
+        }
+        return saved;
+    }
+
+    private void writeSnapshot(User user, Path temp, long generation, boolean sync) throws IOException {
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+            out.writeInt(MAGIC);
+            out.writeLong(generation);
+            List<String> profile = FileManager.formatProfile(user);
+            out.writeInt(profile.size());
+            for (String line : profile) {
+                out.writeUTF(line);
+            }
+            List<Transaction> transactions = user.getTransactionsSnapshot();
+            out.writeInt(transactions.size());
+            for (Transaction transaction : transactions) {
+                writeTransaction(out, transaction);
+            }
+            out.flush();
+            if (sync) {
+                channel.force(true);
+            }
+        }
+    }
+
+    @Override
+    public boolean exists(String username) {
+        return Files.exists(snapshotPath(username));
+    }
+
+    @Override
+    public boolean appendTransaction(String username, Transaction transaction) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(OP_ADD);
+            writeTransaction(out, transaction);
+            out.flush();
+            return appendRecord(username, bytes.toByteArray());
+        } catch (IOException e) {
+            System.err.println("Error appending transaction: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean appendRemoval(String username, long transactionId) {
+        ByteBuffer record = ByteBuffer.allocate(9);
+        record.put(OP_REMOVE).putLong(transactionId);
+        return appendRecord(username, record.array());
+    }
+
+    private boolean appendRecord(String username, byte[] record) {
+        if (!exists(username)) {
+            return false;
+        }
+        try {
+            Path journal = journalPath(username, currentGeneration(username));
+            try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(record);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                if (FileManager.getDurabilityMode() != FileManager.DurabilityMode.NONE) {
+                    channel.force(false);
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error appending transaction: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public List<String> listUsers() {
+        List<String> users = new ArrayList<>();
+        File[] files = directory.toFile().listFiles((dir, name) -> name.endsWith(".snap"));
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                users.add(name.substring(0, name.length() - ".snap".length()));
+            }
+        }
+        return users;
+    }
+
+    private long currentGeneration(String username) throws IOException {
+        Long cached = generations.get(username);
+        if (cached != null) {
+            return cached;
+        }
+        Path snapshot = snapshotPath(username);
+        if (!Files.exists(snapshot)) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(snapshot))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("bad snapshot header for " + username);
+            }
+            long generation = in.readLong();
+            generations.put(username, generation);
+            return generation;
+        }
+    }
+
+    private void forceDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Ignore: directories cannot be opened for sync on this platform
+        }
+    }
+
+    private static void writeTransaction(DataOutputStream out, Transaction transaction) throws IOException {
+        out.writeByte(transaction instanceof Income ? KIND_INCOME : KIND_EXPENSE);
+        out.writeLong(transaction.getId());
+        out.writeUTF(transaction.getName());
+        out.writeDouble(transaction.getAmount());
+        out.writeUTF(transaction.getCategoryOrSource());
+        out.writeLong(transaction.getDate().toEpochDay());
+    }
+
+    private static Transaction readTransaction(DataInputStream in) throws IOException {
+        byte kind = in.readByte();
+        long id = in.readLong();
+        String name = in.readUTF();
+        double amount = in.readDouble();
+        String categoryOrSource = in.readUTF();
+        LocalDate date = LocalDate.ofEpochDay(in.readLong());
+        Transaction transaction = kind == KIND_INCOME ? new Income(name, amount, categoryOrSource, date)
+                : new Expense(name, amount, categoryOrSource, date);
+        transaction.setId(id);
+        return transaction;
+    }
+}
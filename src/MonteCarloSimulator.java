@@ -0,0 +1,279 @@
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.SortedMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estimates the chance of reaching a savings goal by a target month by
+ * simulating many possible futures. Each simulated month draws one of the
+ * user's past months at random (income and expenses together, so months
+ * with a bonus and months with a big bill keep their shape) and adds its
+ * net to the running balance.
+ * <p>
+ * Paths are split across a ForkJoinPool. Each task gets its own
+ * SplittableRandom, split from its parent, so results depend only on the
+ * seed and not on thread scheduling. Monthly history and final balances
+ * are kept in primitive arrays.
+ * <p>
+ * Use a new simulator for each run: once cancelled, it stays cancelled,
+ * so a cancel that arrives before the run starts is not lost.
+ */
+public class MonteCarloSimulator {
+    public static final int DEFAULT_PATHS = 100_000;
+    private static final int PATHS_PER_TASK = 2048;
+
+    /**
+     * Receives the number of simulated paths so far. Called from pool threads.
+     */
+    public interface ProgressListener {
+        void progress(long pathsDone, long totalPaths);
+    }
+
+    /**
+     * The outcome of a simulation.
+     */
+    public static final class Result {
+        private final long paths;
+        private final long successes;
+        private final int months;
+        private final double p10;
+        private final double p50;
+        private final double p90;
+        private final boolean cancelled;
+
+        Result(long paths, long successes, int months, double p10, double p50, double p90, boolean cancelled) {
+            this.paths = paths;
+            this.successes = successes;
+            this.months = months;
+            this.p10 = p10;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.cancelled = cancelled;
+        }
+
+        /**
+         * Returns the share of paths that reached the goal, from 0 to 1.
+         */
+        public double getProbability() {
+            return paths == 0 ? 0 : (double) successes / paths;
+        }
+
+        public long getPaths() {
+            return paths;
+        }
+
+        public int getMonths() {
+            return months;
+        }
+
+        /**
+         * Returns the final balance that 10% of paths end below.
+         */
+        public double getPessimisticBalance() {
+            return p10;
+        }
+
+        public double getMedianBalance() {
+            return p50;
+        }
+
+        /**
+         * Returns the final balance that 90% of paths end below.
+         */
+        public double getOptimisticBalance() {
+            return p90;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.1f%% chance over %d months (%d paths); final balance %s / %s / %s (10th/50th/90th)",
+                    getProbability() * 100, months, paths, FinanceManager.formatCurrency(p10),
+                    FinanceManager.formatCurrency(p50), FinanceManager.formatCurrency(p90));
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    private final AtomicLong pathsDone = new AtomicLong();
+
+    public MonteCarloSimulator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a simulator that runs on the given pool.
+     *
+     * @param pool The pool to split paths across.
+     */
+    public MonteCarloSimulator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Stops the simulation, whether running or not yet started; the result
+     * covers the paths finished so far.
+     */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    /**
+     * Simulates a user's savings up to their target date, bootstrapping from
+     * every finished month of history (recurring transactions included).
+     *
+     * @param user     The user; needs a savings goal and some history.
+     * @param current  The current month; it is excluded from the history.
+     * @param balance  The balance to start from.
+     * @param paths    The number of paths to simulate.
+     * @param seed     Random seed, for repeatable results.
+     * @param listener Receives progress; may be null.
+     * @return The result.
+     * @throws IllegalStateException if there is no goal, target or history.
+     */
+    public Result simulate(User user, YearMonth current, double balance, int paths, long seed,
+            ProgressListener listener) {
+        YearMonth target = user.getSavingsTargetDate() != null ? YearMonth.from(user.getSavingsTargetDate())
+                : user.getSavingsTargetMonths() > 0 ? current.plusMonths(user.getSavingsTargetMonths()) : null;
+        if (user.getSavingsGoal() <= 0 || target == null) {
+            throw new IllegalStateException("Set a savings goal and target date first");
+        }
+        SortedMap<YearMonth, double[]> monthly = MonthlyReportManager.getMonthlyTotals(user, current.minusMonths(1))
+                .headMap(current);
+        if (monthly.isEmpty()) {
+            throw new IllegalStateException("Needs at least one finished month of history");
+        }
+
+        // Every month in the span, quiet months included as zero
+        YearMonth first = monthly.firstKey();
+        int span = (int) first.until(current, ChronoUnit.MONTHS);
+        double[] nets = new double[span];
+        for (int i = 0; i < span; i++) {
+            double[] totals = monthly.get(first.plusMonths(i));
+            nets[i] = totals == null ? 0 : totals[0] - totals[1];
+        }
+        int months = (int) Math.max(1, current.until(target, ChronoUnit.MONTHS));
+        return simulate(nets, balance, user.getSavingsGoal(), months, paths, seed, listener);
+    }
+
+    /**
+     * Simulates paths by resampling monthly net savings.
+     *
+     * @param monthlyNets Historical net savings per month to sample from.
+     * @param balance     The starting balance.
+     * @param goal        The savings goal.
+     * @param months      Months to simulate.
+     * @param paths       Number of paths.
+     * @param seed        Random seed.
+     * @param listener    Receives progress; may be null.
+     * @return The result.
+     */
+    public Result simulate(double[] monthlyNets, double balance, double goal, int months, int paths, long seed,
+            ProgressListener listener) {
+        pathsDone.set(0);
+        double[] finals = new double[paths];
+        PathTask root = new PathTask(monthlyNets, balance, goal, months, finals, 0, paths,
+                new SplittableRandom(seed), listener);
+        long[] outcome = pool.invoke(root); // {paths run, successes}
+
+        double[] done = outcome[0] == paths ? finals : compact(finals, outcome[0]);
+        Arrays.sort(done);
+        return new Result(outcome[0], outcome[1], months, percentile(done, 0.1), percentile(done, 0.5),
+                percentile(done, 0.9), cancelled.get());
+    }
+
+    /**
+     * Runs a range of paths, splitting in half until the range is small.
+     * Returns {paths run, paths that reached the goal}.
+     */
+    private final class PathTask extends RecursiveTask<long[]> {
+        private final double[] nets;
+        private final double balance;
+        private final double goal;
+        private final int months;
+        private final double[] finals;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+        private final ProgressListener listener;
+
+        PathTask(double[] nets, double balance, double goal, int months, double[] finals, int from, int to,
+                SplittableRandom random, ProgressListener listener) {
+            this.nets = nets;
+            this.balance = balance;
+            this.goal = goal;
+            this.months = months;
+            this.finals = finals;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+            this.listener = listener;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from > PATHS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                PathTask left = new PathTask(nets, balance, goal, months, finals, from, mid, random.split(),
+                        listener);
+                PathTask right = new PathTask(nets, balance, goal, months, finals, mid, to, random, listener);
+                left.fork();
+                long[] r = right.compute();
+                long[] l = left.join();
+                return new long[] { l[0] + r[0], l[1] + r[1] };
+            }
+            if (cancelled.get()) {
+                markSkipped();
+                return new long[2];
+            }
+            long successes = 0;
+            for (int p = from; p < to; p++) {
+                double value = balance;
+                boolean reached = value >= goal;
+                for (int m = 0; m < months; m++) {
+                    value += nets[random.nextInt(nets.length)];
+                    reached |= value >= goal;
+                }
+                finals[p] = value;
+                if (reached) {
+                    successes++;
+                }
+            }
+            long total = pathsDone.addAndGet(to - from);
+            if (listener != null) {
+                listener.progress(total, finals.length);
+            }
+            return new long[] { to - from, successes };
+        }
+
+        private void markSkipped() {
+            Arrays.fill(finals, from, to, Double.NaN);
+        }
+    }
+
+    private static double[] compact(double[] values, long count) {
+        double[] kept = new double[(int) count];
+        int n = 0;
+        for (double value : values) {
+            if (!Double.isNaN(value) && n < kept.length) {
+                kept[n++] = value;
+            }
+        }
+        return kept;
+    }
+
+    private static double percentile(double[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(fraction * sorted.length))];
+    }
+}
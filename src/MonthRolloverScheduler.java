@@ -0,0 +1,149 @@
+import java.time.Clock;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the current month and closes the previous one at each month
+ * boundary: the watched users' finished months are sealed into immutable
+ * MonthSummary objects and listeners are told the month changed. New
+ * month totals start from zero on their own, because User keeps its
+ * running totals per month.
+ * <p>
+ * The time comes from an injected Clock. In production the scheduler
+ * sleeps until the next boundary on a daemon thread; tests can move a
+ * custom clock forward and call rollover() directly.
+ */
+public class MonthRolloverScheduler {
+    // Re-check at least this often in case the system clock jumps
+    private static final long MAX_SLEEP_MS = TimeUnit.HOURS.toMillis(6);
+
+    /**
+     * Receives the sealed summaries when a month closes.
+     */
+    public interface RolloverListener {
+        void monthClosed(User user, YearMonth newMonth, List<MonthSummary> sealed);
+    }
+
+    private final Clock clock;
+    private final List<RolloverListener> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService executor;
+    private volatile YearMonth currentMonth;
+
+    // Guarded by this
+    private final Map<String, User> watched = new LinkedHashMap<>();
+
+    /**
+     * Creates a scheduler. Call start() to begin waiting for boundaries.
+     *
+     * @param clock The clock deciding the current month.
+     */
+    public MonthRolloverScheduler(Clock clock) {
+        this.clock = clock;
+        this.currentMonth = YearMonth.now(clock);
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "month-rollover");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void addRolloverListener(RolloverListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeRolloverListener(RolloverListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns the month that is currently open, updated at each boundary,
+     * so callers need not read the clock on every refresh.
+     *
+     * @return The current month.
+     */
+    public YearMonth getCurrentMonth() {
+        return currentMonth;
+    }
+
+    /**
+     * Seals a user's closed months now and at every later boundary.
+     *
+     * @param user The user to watch.
+     */
+    public void watch(User user) {
+        synchronized (this) {
+            watched.put(user.getUsername(), user);
+        }
+        user.sealMonthsBefore(currentMonth);
+    }
+
+    public synchronized void unwatch(User user) {
+        watched.remove(user.getUsername());
+    }
+
+    /**
+     * Starts waiting for month boundaries on a background thread.
+     */
+    public void start() {
+        scheduleNext();
+    }
+
+    /**
+     * Stops the background thread.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Closes the previous month if the clock has passed a boundary. Safe to
+     * call at any time; nothing happens within the same month.
+     *
+     * @return true if the month changed.
+     */
+    public boolean rollover() {
+        YearMonth now = YearMonth.now(clock);
+        List<User> users;
+        synchronized (this) {
+            if (!now.isAfter(currentMonth)) {
+                return false;
+            }
+            currentMonth = now;
+            users = new ArrayList<>(watched.values());
+        }
+        for (User user : users) {
+            List<MonthSummary> sealed = user.sealMonthsBefore(now);
+            for (RolloverListener listener : listeners) {
+                listener.monthClosed(user, now, sealed);
+            }
+        }
+        return true;
+    }
+
+    private void scheduleNext() {
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        ZonedDateTime boundary = YearMonth.from(now).plusMonths(1).atDay(1).atStartOfDay(clock.getZone());
+        long delay = Math.min(Math.max(0, Duration.between(now, boundary).toMillis()), MAX_SLEEP_MS);
+        try {
+            executor.schedule(() -> {
+                try {
+                    rollover();
+                } finally {
+                    scheduleNext();
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shut down
+        }
+    }
+}
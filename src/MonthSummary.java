@@ -0,0 +1,91 @@
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable totals for one month: income, expenses, the number of
+ * transactions and expenses per category. Closed months are sealed into
+ * summaries at the month boundary so reports can reuse them instead of
+ * recomputing history.
+ */
+public final class MonthSummary {
+    private final YearMonth month;
+    private final double income;
+    private final double expenses;
+    private final int transactionCount;
+    private final Map<String, Double> categoryExpenses;
+    private final boolean sealed;
+
+    /**
+     * Creates a summary.
+     *
+     * @param month            The month.
+     * @param income           Total income.
+     * @param expenses         Total expenses.
+     * @param transactionCount Number of transactions dated in the month.
+     * @param categoryExpenses Expenses per category (lower-case keys).
+     * @param sealed           true if the month was closed when this was built.
+     */
+    public MonthSummary(YearMonth month, double income, double expenses, int transactionCount,
+            Map<String, Double> categoryExpenses, boolean sealed) {
+        this.month = month;
+        this.income = income;
+        this.expenses = expenses;
+        this.transactionCount = transactionCount;
+        this.categoryExpenses = Collections.unmodifiableMap(new LinkedHashMap<>(categoryExpenses));
+        this.sealed = sealed;
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    public double getIncome() {
+        return income;
+    }
+
+    public double getExpenses() {
+        return expenses;
+    }
+
+    /**
+     * Returns income minus expenses.
+     *
+     * @return The month's net savings.
+     */
+    public double getNet() {
+        return income - expenses;
+    }
+
+    public int getTransactionCount() {
+        return transactionCount;
+    }
+
+    /**
+     * Returns expenses per category, keyed by lower-case category name.
+     *
+     * @return An unmodifiable map.
+     */
+    public Map<String, Double> getCategoryExpenses() {
+        return categoryExpenses;
+    }
+
+    /**
+     * Checks whether this summary belongs to a closed month. A backdated
+     * change to a sealed month reopens it, and it is sealed again at the
+     * next rollover.
+     *
+     * @return true if the month was sealed.
+     */
+    public boolean isSealed() {
+        return sealed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: income %s, expenses %s, %d transactions%s", month,
+                FinanceManager.formatCurrency(income), FinanceManager.formatCurrency(expenses), transactionCount,
+                sealed ? " (sealed)" : "");
+    }
+}
@@ -1,5 +1,11 @@
+import java.time.LocalDate;
 import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /**
@@ -34,4 +40,125 @@ public class MonthlyReportManager {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Returns a user's transactions for a month together with the
+     * occurrences of their recurring transactions in that month. Occurrences
+     * are generated for this month only.
+     * 
+     * @param user      The user.
+     * @param yearMonth The month to show.
+     * @return Stored transactions followed by recurring occurrences.
+     */
+    public static List<Transaction> getTransactionsForMonth(User user, YearMonth yearMonth) {
+        List<Transaction> month = new ArrayList<>(getTransactionsForMonth(user.getTransactions(), yearMonth));
+        for (RecurringTransaction rule : user.getRecurringTransactions()) {
+            month.addAll(rule.occurrencesBetween(yearMonth.atDay(1), yearMonth.atEndOfMonth()));
+        }
+        return month;
+    }
+
+    /**
+     * Aggregates income and expenses per month in a single pass.
+     * 
+     * @param transactions List of transactions.
+     * @return Map sorted by month; each value holds {income, expenses}.
+     */
+    public static SortedMap<YearMonth, double[]> getMonthlyTotals(List<Transaction> transactions) {
+        SortedMap<YearMonth, double[]> totals = new TreeMap<>();
+        for (Transaction t : transactions) {
+            double[] month = totals.computeIfAbsent(YearMonth.from(t.getDate()), k -> new double[2]);
+            if (t instanceof Income) {
+                month[0] += t.getAmount();
+            } else if (t instanceof Expense) {
+                month[1] += t.getAmount();
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Aggregates a user's income and expenses per month from the user's
+     * month summaries, adding recurring occurrences from the first month with
+     * activity through the given month. Recurring amounts are counted per
+     * month, not generated.
+     * 
+     * @param user    The user.
+     * @param through The last month to include recurring occurrences for.
+     * @return Map sorted by month; each value holds {income, expenses}.
+     */
+    public static SortedMap<YearMonth, double[]> getMonthlyTotals(User user, YearMonth through) {
+        // Closed months come from their sealed summaries; nothing is rescanned
+        SortedMap<YearMonth, double[]> totals = new TreeMap<>();
+        for (MonthSummary summary : user.getMonthSummaries().values()) {
+            totals.put(summary.getMonth(), new double[] { summary.getIncome(), summary.getExpenses() });
+        }
+        List<RecurringTransaction> rules = user.getRecurringTransactions();
+        if (rules.isEmpty()) {
+            return totals;
+        }
+        YearMonth first = totals.isEmpty() ? through : totals.firstKey();
+        for (RecurringTransaction rule : rules) {
+            YearMonth start = YearMonth.from(rule.getStartDate());
+            if (start.isBefore(first)) {
+                first = start;
+            }
+        }
+        long months = first.until(through, ChronoUnit.MONTHS);
+        for (int i = 0; i <= months; i++) {
+            YearMonth month = first.plusMonths(i);
+            double[] recurring = FinanceManager.calculateRecurringTotals(rules, month.atDay(1), month.atEndOfMonth());
+            if (recurring[0] != 0 || recurring[1] != 0) {
+                double[] monthTotals = totals.computeIfAbsent(month, k -> new double[2]);
+                monthTotals[0] += recurring[0];
+                monthTotals[1] += recurring[1];
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Builds the running balance at the end of every day with activity.
+     * 
+     * @param transactions List of transactions.
+     * @return Two parallel arrays: index 0 holds epoch days, index 1 the balance.
+     */
+    public static double[][] getDailyBalanceSeries(List<Transaction> transactions) {
+        TreeMap<Long, Double> netPerDay = new TreeMap<>();
+        for (Transaction t : transactions) {
+            double delta = t instanceof Income ? t.getAmount() : -t.getAmount();
+            netPerDay.merge(t.getDate().toEpochDay(), delta, Double::sum);
+        }
+
+        double[] days = new double[netPerDay.size()];
+        double[] balances = new double[netPerDay.size()];
+        double balance = 0.0;
+        int i = 0;
+        for (Map.Entry<Long, Double> entry : netPerDay.entrySet()) {
+            balance += entry.getValue();
+            days[i] = entry.getKey();
+            balances[i] = balance;
+            i++;
+        }
+        return new double[][] { days, balances };
+    }
+
+    /**
+     * Builds the daily balance series for a user, including recurring
+     * occurrences up to a date.
+     * 
+     * @param user    The user.
+     * @param through The last day of recurring occurrences to include.
+     * @return Two parallel arrays: index 0 holds epoch days, index 1 the balance.
+     */
+    public static double[][] getDailyBalanceSeries(User user, LocalDate through) {
+        List<RecurringTransaction> rules = user.getRecurringTransactions();
+        if (rules.isEmpty()) {
+            return getDailyBalanceSeries(user.getTransactions());
+        }
+        List<Transaction> all = new ArrayList<>(user.getTransactions());
+        for (RecurringTransaction rule : rules) {
+            all.addAll(rule.occurrencesBetween(rule.getStartDate(), through));
+        }
+        return getDailyBalanceSeries(all);
+    }
 }
@@ -1,19 +1,35 @@
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 /**
@@ -21,6 +37,10 @@ import java.util.stream.Collectors;
  * Encapsulates the creation logic and dependency injection for the GUI.
  */
 public class PanelFactory {
+    // Upper bound on rows the history view builds for a filtered search
+    private static final int MAX_HISTORY_RESULTS = 500;
+    // Manual adds this close to a matching transaction ask for confirmation
+    private static final int DUPLICATE_WINDOW_DAYS = 3;
 
     /**
      * Interface for communicating back to the main GUI controller.
@@ -56,6 +76,11 @@ public class PanelFactory {
         void refreshAllPanels();
 
         User getCurrentUser();
+
+        /**
+         * Returns the open month, kept current by the rollover scheduler.
+         */
+        YearMonth getCurrentMonth();
     }
 
     /**
@@ -143,7 +168,40 @@ public class PanelFactory {
                 true, "", 30));
         fields.add(new FormField("date", "Date (YYYY-MM-DD):", FormField.FieldType.DATE, LocalDate.now().toString(),
                 true, "", 30));
+        String[] repeatOptions = new String[RecurringTransaction.Frequency.values().length + 1];
+        repeatOptions[0] = "Never";
+        for (RecurringTransaction.Frequency frequency : RecurringTransaction.Frequency.values()) {
+            repeatOptions[frequency.ordinal() + 1] = frequency.toString();
+        }
+        fields.add(new FormField("repeat", "Repeat:", FormField.FieldType.CHOICE, "Never", false,
+                "Recurring entries are added to every matching month automatically", 30).setOptions(repeatOptions));
         panel.addFields(fields);
+
+        // Suggest categories/sources already in use to avoid near-duplicates
+        AutoCompleter.attach((JTextField) panel.getField("categorySource"), prefix -> {
+            User user = gui.getCurrentUser();
+            if (user == null) {
+                return new ArrayList<>();
+            }
+            return user.suggestCategoryOrSource(isIncome, prefix, 6);
+        });
+
+        // Fill in the category from the user's keyword rules once a name is typed
+        JTextField nameField = (JTextField) panel.getField("name");
+        JTextField categoryField = (JTextField) panel.getField("categorySource");
+        nameField.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                User user = gui.getCurrentUser();
+                if (user != null && categoryField.getText().trim().isEmpty()) {
+                    String suggested = user.suggestCategoryForName(nameField.getText());
+                    if (suggested != null) {
+                        categoryField.setText(suggested);
+                    }
+                }
+            }
+        });
+
         panel.addButton("Save", e -> {
             String name = panel.getFieldValue("name");
             String amountStr = panel.getFieldValue("amount");
@@ -162,8 +220,31 @@ public class PanelFactory {
                 LocalDate date = LocalDate.parse(dateStr);
                 User user = gui.getCurrentUser();
                 if (user != null) {
+                    // Reuse the existing spelling of a known category/source
+                    String existing = user.canonicalCategoryOrSource(isIncome, categorySource);
+                    if (existing != null) {
+                        categorySource = existing;
+                    }
+                    RecurringTransaction.Frequency frequency = RecurringTransaction.Frequency
+                            .fromLabel(panel.getFieldValue("repeat"));
+                    if (frequency != null) {
+                        user.addRecurringTransaction(new RecurringTransaction(name, amount, categorySource, isIncome,
+                                frequency, date, null));
+                        gui.refreshAllPanels();
+                        gui.showMessage("Recurring transaction added successfully!", "Success");
+                        gui.showDashboard();
+                        return;
+                    }
                     Transaction transaction = isIncome ? new Income(name, amount, categorySource, date)
                             : new Expense(name, amount, categorySource, date);
+                    if (user.countSimilarTransactions(transaction, DUPLICATE_WINDOW_DAYS) > 0
+                            && JOptionPane.showConfirmDialog(panel,
+                                    "A transaction with the same name, amount and category already exists"
+                                            + " within " + DUPLICATE_WINDOW_DAYS + " days of this date.\nAdd it anyway?",
+                                    "Possible Duplicate", JOptionPane.YES_NO_OPTION,
+                                    JOptionPane.WARNING_MESSAGE) != JOptionPane.YES_OPTION) {
+                        return;
+                    }
                     user.addTransaction(transaction);
                     gui.refreshAllPanels();
                     gui.showMessage("Transaction added successfully!", "Success");
@@ -401,13 +482,12 @@ public class PanelFactory {
 
                 // Stats
                 List<Transaction> allTrans = user.getTransactions();
-                double[] totals = FinanceManager.calculateTotals(allTrans);
-                double balance = totals[0] - totals[1];
+                double balance = FinanceManager.calculateBalance(user, LocalDate.now());
 
-                YearMonth now = YearMonth.now();
-                List<Transaction> monthTrans = MonthlyReportManager.getTransactionsForMonth(allTrans, now);
-                double monthInc = FinanceManager.calculateTotalIncome(monthTrans);
-                double monthExp = FinanceManager.calculateTotalExpenses(monthTrans);
+                // Month totals include this month's recurring occurrences
+                double[] monthTotals = FinanceManager.calculateMonthTotals(user, gui.getCurrentMonth());
+                double monthInc = monthTotals[0];
+                double monthExp = monthTotals[1];
                 double net = monthInc - monthExp;
 
                 balanceCard.setValue(FinanceManager.formatCurrency(balance));
@@ -477,7 +557,7 @@ public class PanelFactory {
         item.setMaximumSize(new Dimension(Integer.MAX_VALUE, 55));
 
         JLabel icon = new JLabel(t instanceof Income ? "💰" : "💸");
-        icon.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 18));
+        icon.setFont(Theme.FONT_ICON_SMALL);
 
         JPanel center = new JPanel(new GridLayout(2, 1));
         center.setOpaque(false);
@@ -602,20 +682,96 @@ public class PanelFactory {
         sStatus.setFont(Theme.FONT_SMALL);
         sStatus.setForeground(Theme.TEXT_SECONDARY);
 
+        JLabel sForecast = new JLabel(" ");
+        sForecast.setFont(Theme.FONT_SMALL);
+        sForecast.setForeground(Theme.TEXT_SECONDARY);
+
+        // Monte Carlo simulation of the goal, run on demand
+        JProgressBar simProgress = new JProgressBar(0, 100);
+        simProgress.setStringPainted(true);
+        simProgress.setVisible(false);
+        JLabel simResult = new JLabel(" ");
+        simResult.setFont(Theme.FONT_SMALL);
+        simResult.setForeground(Theme.TEXT_SECONDARY);
+        MonteCarloSimulator[] runningSimulation = new MonteCarloSimulator[1];
+        JButton simulateBtn = Theme.createButton("Simulate Goal", false);
+        simulateBtn.addActionListener(e -> {
+            if (runningSimulation[0] != null) {
+                runningSimulation[0].cancel();
+            } else {
+                startSimulation(gui, simulateBtn, simProgress, simResult, runningSimulation);
+            }
+        });
+
+        JPanel simPanel = new JPanel(new BorderLayout());
+        simPanel.setOpaque(false);
+        simPanel.add(sForecast, BorderLayout.NORTH);
+        simPanel.add(simProgress, BorderLayout.CENTER);
+        simPanel.add(simResult, BorderLayout.SOUTH);
+        simPanel.add(simulateBtn, BorderLayout.EAST);
+
         JPanel sBottom = new JPanel(new BorderLayout());
         sBottom.setOpaque(false);
         sBottom.add(sStatus, BorderLayout.NORTH);
         sBottom.add(sBar, BorderLayout.CENTER);
+        sBottom.add(simPanel, BorderLayout.SOUTH);
 
         savingsCard.add(savingsTitle, BorderLayout.NORTH);
         savingsCard.add(savingsForm, BorderLayout.CENTER);
         savingsCard.add(sBottom, BorderLayout.SOUTH);
 
+        // 3. Category Budgets Card
+        RoundedPanel categoryCard = new RoundedPanel(Theme.RADIUS_MEDIUM, null);
+        categoryCard.setBackground(Theme.SURFACE);
+        categoryCard.setLayout(new BorderLayout(20, 0));
+        categoryCard.setBorder(new EmptyBorder(25, 25, 25, 25));
+
+        JLabel categoryTitle = new JLabel("Category Budgets");
+        categoryTitle.setFont(Theme.FONT_HEADING);
+        categoryTitle.setForeground(Theme.TEXT_PRIMARY);
+
+        FormPanel categoryForm = new FormPanel(null);
+        categoryForm.addFields(java.util.List.of(
+                new FormField("category", "Category:", FormField.FieldType.TEXT),
+                new FormField("limit", "Budget ($):", FormField.FieldType.NUMBER, "", true, "0 removes the budget",
+                        20)));
+        categoryForm.addButton("Save Category Budget", e -> {
+            try {
+                String category = categoryForm.getFieldValue("category");
+                double val = Double.parseDouble(categoryForm.getFieldValue("limit"));
+                if (category.isEmpty() || val < 0) {
+                    gui.showError("Enter a category and a positive value", "Error");
+                    return;
+                }
+                User u = gui.getCurrentUser();
+                if (u != null) {
+                    u.setCategoryBudget(category, val);
+                    categoryForm.clearFields();
+                    gui.refreshAllPanels();
+                }
+            } catch (Exception ex) {
+                gui.showError("Invalid number", "Error");
+            }
+        });
+
+        JPanel categoryRows = new JPanel();
+        categoryRows.setLayout(new BoxLayout(categoryRows, BoxLayout.Y_AXIS));
+        categoryRows.setOpaque(false);
+        JScrollPane categoryScroll = new JScrollPane(categoryRows);
+        categoryScroll.setBorder(null);
+        categoryScroll.setOpaque(false);
+        categoryScroll.getViewport().setOpaque(false);
+
+        categoryCard.add(categoryTitle, BorderLayout.NORTH);
+        categoryCard.add(categoryForm, BorderLayout.WEST);
+        categoryCard.add(categoryScroll, BorderLayout.CENTER);
+
         // Layout Config
-        JPanel content = new JPanel(new GridLayout(2, 1, 0, 20));
+        JPanel content = new JPanel(new GridLayout(3, 1, 0, 20));
         content.setOpaque(false);
         content.add(budgetCard);
         content.add(savingsCard);
+        content.add(categoryCard);
 
         JButton back = Theme.createButton("Back", false);
         back.addActionListener(e -> gui.showDashboard());
@@ -637,7 +793,7 @@ public class PanelFactory {
                 double b = u.getMonthlyBudget();
                 budgetForm.setFieldValue("budget", b > 0 ? String.format("%.2f", b) : "");
                 if (b > 0) {
-                    double exp = FinanceManager.calculateMonthlyExpenses(u.getTransactions());
+                    double exp = FinanceManager.calculateMonthTotals(u, gui.getCurrentMonth())[1];
                     double pct = (exp / b) * 100;
                     bBar.setValue((int) Math.min(pct, 100));
                     bBar.setString(String.format("%.1f%%", pct));
@@ -656,16 +812,64 @@ public class PanelFactory {
                 savingsForm.setFieldValue("date", td != null ? td.toString() : "");
 
                 if (g > 0) {
-                    double bal = FinanceManager.calculateBalance(u.getTransactions());
+                    double bal = FinanceManager.calculateBalance(u, LocalDate.now());
                     double pct = (bal / g) * 100;
                     sBar.setValue(bal > 0 ? (int) Math.min(pct, 100) : 0);
                     sBar.setString(String.format("%.1f%%", Math.max(0, pct)));
                     sBar.setForeground(Theme.INFO);
                     sStatus.setText("Current: " + FinanceManager.formatCurrency(bal));
+
+                    // Trend forecast, kept incrementally by the user
+                    SavingsProjection.Forecast forecast = FinanceManager.projectSavings(u, gui.getCurrentMonth(),
+                            LocalDate.now());
+                    String when = forecast.getMonthsToGoal() == 0 ? "Goal reached"
+                            : forecast.isReachable() ? "At your current trend you reach the goal by "
+                                    + forecast.getGoalDate().format(DateTimeFormatter.ofPattern("MMM yyyy"))
+                                    : "At your current trend the goal is out of reach";
+                    if (forecast.getRequiredMonthlySaving() > 0) {
+                        when += "; save " + FinanceManager.formatCurrency(forecast.getRequiredMonthlySaving())
+                                + "/month to meet your target date";
+                    }
+                    sForecast.setText(when);
                 } else {
                     sBar.setValue(0);
                     sBar.setString("Not set");
+                    sForecast.setText(" ");
+                }
+
+                // Category budgets, read from the running per-category totals
+                categoryRows.removeAll();
+                YearMonth month = gui.getCurrentMonth();
+                Map<String, Double> budgets = u.getCategoryBudgets();
+                if (budgets.isEmpty()) {
+                    JLabel empty = new JLabel("No category budgets yet");
+                    empty.setFont(Theme.FONT_SMALL);
+                    empty.setForeground(Theme.TEXT_SECONDARY);
+                    categoryRows.add(empty);
+                }
+                for (Map.Entry<String, Double> budget : budgets.entrySet()) {
+                    double spent = FinanceManager.calculateCategorySpending(u, budget.getKey(), month);
+                    double pct = spent / budget.getValue() * 100;
+                    JProgressBar bar = new JProgressBar(0, 100);
+                    bar.setStringPainted(true);
+                    bar.setValue((int) Math.min(pct, 100));
+                    bar.setString(String.format("%s / %s", FinanceManager.formatCurrency(spent),
+                            FinanceManager.formatCurrency(budget.getValue())));
+                    bar.setForeground(pct >= 100 ? Theme.DANGER : Theme.PRIMARY);
+                    JLabel name = new JLabel(budget.getKey());
+                    name.setFont(Theme.FONT_BODY);
+                    name.setForeground(pct >= 100 ? Theme.DANGER : Theme.TEXT_PRIMARY);
+                    name.setPreferredSize(new Dimension(140, 24));
+                    JPanel row = new JPanel(new BorderLayout(10, 0));
+                    row.setOpaque(false);
+                    row.setMaximumSize(new Dimension(Integer.MAX_VALUE, 28));
+                    row.add(name, BorderLayout.WEST);
+                    row.add(bar, BorderLayout.CENTER);
+                    categoryRows.add(row);
+                    categoryRows.add(Box.createVerticalStrut(6));
                 }
+                categoryRows.revalidate();
+                categoryRows.repaint();
             }
         };
     }
@@ -693,9 +897,68 @@ public class PanelFactory {
         JButton backBtn = Theme.createButton("Back to Dashboard", false); // Secondary button
         backBtn.addActionListener(e -> gui.showDashboard());
 
+        JProgressBar importProgress = new JProgressBar(0, 100);
+        importProgress.setStringPainted(true);
+        importProgress.setVisible(false);
+        JButton importBtn = Theme.createButton("Import CSV", false);
+        CsvImporter[] runningImport = new CsvImporter[1];
+        importBtn.addActionListener(e -> {
+            if (runningImport[0] != null) {
+                runningImport[0].cancel();
+            } else {
+                startCsvImport(gui, mainConfig, importBtn, importProgress, runningImport);
+            }
+        });
+
+        JButton rulesBtn = Theme.createButton("Category Rules", false);
+        rulesBtn.addActionListener(e -> editCategoryRules(gui, mainConfig));
+        JButton recurringBtn = Theme.createButton("Recurring", false);
+        recurringBtn.addActionListener(e -> manageRecurring(gui, mainConfig));
+
+        JPanel headerActions = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+        headerActions.setOpaque(false);
+        headerActions.add(importProgress);
+        headerActions.add(recurringBtn);
+        headerActions.add(rulesBtn);
+        headerActions.add(importBtn);
+        headerActions.add(backBtn);
+
         header.add(title, BorderLayout.WEST);
-        header.add(backBtn, BorderLayout.EAST);
-        mainConfig.add(header, BorderLayout.NORTH);
+        header.add(headerActions, BorderLayout.EAST);
+
+        // Search / filter bar
+        JPanel filterBar = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
+        filterBar.setBackground(Theme.BACKGROUND);
+        filterBar.setBorder(new EmptyBorder(0, Theme.PADDING_LARGE - 10, Theme.PADDING_MEDIUM, Theme.PADDING_LARGE));
+
+        JTextField searchField = createFilterField(16);
+        searchField.setToolTipText("Search names and categories");
+        JComboBox<String> typeBox = new JComboBox<>(new String[] { "All", "Income", "Expense" });
+        typeBox.setFont(Theme.FONT_BODY);
+        JTextField categoryField = createFilterField(10);
+        JTextField fromField = createFilterField(8);
+        fromField.setToolTipText("YYYY-MM-DD");
+        JTextField toField = createFilterField(8);
+        toField.setToolTipText("YYYY-MM-DD");
+        JLabel resultLabel = createFilterLabel("");
+
+        filterBar.add(createFilterLabel("Search:"));
+        filterBar.add(searchField);
+        filterBar.add(createFilterLabel("Type:"));
+        filterBar.add(typeBox);
+        filterBar.add(createFilterLabel("Category:"));
+        filterBar.add(categoryField);
+        filterBar.add(createFilterLabel("From:"));
+        filterBar.add(fromField);
+        filterBar.add(createFilterLabel("To:"));
+        filterBar.add(toField);
+        filterBar.add(resultLabel);
+
+        JPanel north = new JPanel(new BorderLayout());
+        north.setBackground(Theme.BACKGROUND);
+        north.add(header, BorderLayout.NORTH);
+        north.add(filterBar, BorderLayout.SOUTH);
+        mainConfig.add(north, BorderLayout.NORTH);
 
         // Content List
         JPanel listPanel = new JPanel();
@@ -711,39 +974,464 @@ public class PanelFactory {
 
         mainConfig.add(scrollPane, BorderLayout.CENTER);
 
+        TransactionSearch search = new TransactionSearch(gui::getCurrentUser,
+                () -> {
+                    boolean validFrom = checkDateField(fromField);
+                    boolean validTo = checkDateField(toField);
+                    if (!validFrom || !validTo) {
+                        // Show nothing rather than results that ignore the bad date
+                        listPanel.removeAll();
+                        listPanel.revalidate();
+                        listPanel.repaint();
+                        resultLabel.setText("Enter dates as YYYY-MM-DD");
+                        return null;
+                    }
+                    return new TransactionFilter(searchField.getText(), (String) typeBox.getSelectedItem(),
+                            categoryField.getText(), parseDateOrNull(fromField.getText()),
+                            parseDateOrNull(toField.getText()));
+                },
+                new TransactionSearch.ResultListener() {
+                    @Override
+                    public void searchStarted() {
+                        listPanel.removeAll();
+                        resultLabel.setText("Searching...");
+                        listPanel.revalidate();
+                        listPanel.repaint();
+                    }
+
+                    @Override
+                    public void resultsFound(List<Transaction> batch) {
+                        for (Transaction t : batch) {
+                            listPanel.add(createFullTransactionItem(t, gui, () -> {
+                                // On delete callback
+                                User user = gui.getCurrentUser();
+                                if (user != null) {
+                                    user.removeTransaction(t);
+                                    gui.refreshAllPanels();
+                                }
+                            }));
+                            listPanel.add(Box.createVerticalStrut(10));
+                        }
+                        listPanel.revalidate();
+                        listPanel.repaint();
+                    }
+
+                    @Override
+                    public void searchFinished(int matchCount, boolean truncated) {
+                        if (matchCount == 0) {
+                            User user = gui.getCurrentUser();
+                            boolean hasAny = user != null && user.getTransactionCount() > 0;
+                            JLabel empty = new JLabel(hasAny ? "No transactions match your search."
+                                    : "No transactions found.");
+                            empty.setFont(Theme.FONT_HEADING);
+                            empty.setForeground(Theme.TEXT_SECONDARY);
+                            empty.setAlignmentX(Component.CENTER_ALIGNMENT);
+                            listPanel.add(Box.createVerticalStrut(50));
+                            listPanel.add(empty);
+                            listPanel.revalidate();
+                            listPanel.repaint();
+                        }
+                        resultLabel.setText(truncated ? "Showing first " + matchCount + " results"
+                                : matchCount + (matchCount == 1 ? " result" : " results"));
+                    }
+                }, MAX_HISTORY_RESULTS);
+
+        DocumentListener onEdit = new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                search.requestSearch();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                search.requestSearch();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                search.requestSearch();
+            }
+        };
+        searchField.getDocument().addDocumentListener(onEdit);
+        categoryField.getDocument().addDocumentListener(onEdit);
+        fromField.getDocument().addDocumentListener(onEdit);
+        toField.getDocument().addDocumentListener(onEdit);
+        typeBox.addActionListener(e -> search.searchNow());
+
         return new RefreshablePanel(mainConfig) {
             @Override
             public void refresh() {
-                listPanel.removeAll();
-                User user = gui.getCurrentUser();
-                if (user == null)
+                if (gui.getCurrentUser() == null) {
+                    listPanel.removeAll();
                     return;
+                }
+                search.searchNow();
+            }
+        };
+    }
 
-                List<Transaction> transactions = user.getTransactions().stream()
-                        .sorted(Comparator.comparing(Transaction::getDate).reversed())
-                        .collect(Collectors.toList());
+    /**
+     * Lets the user pick a bank CSV and imports it on a background thread,
+     * showing progress in the header. Clicking the button again cancels.
+     */
+    private static void startCsvImport(GUIController gui, JComponent parent, JButton importBtn,
+            JProgressBar progress, CsvImporter[] runningImport) {
+        User user = gui.getCurrentUser();
+        if (user == null) {
+            return;
+        }
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV files", "csv"));
+        if (chooser.showOpenDialog(parent) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
 
-                if (transactions.isEmpty()) {
-                    JLabel empty = new JLabel("No transactions found.");
-                    empty.setFont(Theme.FONT_HEADING);
-                    empty.setForeground(Theme.TEXT_SECONDARY);
-                    empty.setAlignmentX(Component.CENTER_ALIGNMENT);
-                    listPanel.add(Box.createVerticalStrut(50));
-                    listPanel.add(empty);
-                } else {
-                    for (Transaction t : transactions) {
-                        listPanel.add(createFullTransactionItem(t, gui, () -> {
-                            // On delete callback
-                            user.removeTransaction(t);
-                            gui.refreshAllPanels();
-                        }));
-                        listPanel.add(Box.createVerticalStrut(10));
+        CsvImporter importer = new CsvImporter();
+        runningImport[0] = importer;
+        importBtn.setText("Cancel Import");
+        progress.setValue(0);
+        progress.setVisible(true);
+
+        new SwingWorker<CsvImporter.Result, Integer>() {
+            @Override
+            protected CsvImporter.Result doInBackground() throws Exception {
+                return importer.importFile(chooser.getSelectedFile().toPath(), user,
+                        (bytesRead, totalBytes, imported) -> publish(
+                                (int) (bytesRead * 100 / Math.max(1, totalBytes))));
+            }
+
+            @Override
+            protected void process(List<Integer> chunks) {
+                progress.setValue(chunks.get(chunks.size() - 1));
+            }
+
+            @Override
+            protected void done() {
+                runningImport[0] = null;
+                importBtn.setText("Import CSV");
+                progress.setVisible(false);
+                try {
+                    CsvImporter.Result result = get();
+                    gui.refreshAllPanels();
+                    gui.showMessage("Import finished: " + result, "Import CSV");
+                } catch (ExecutionException ex) {
+                    gui.showError("Import failed: " + ex.getCause().getMessage(), "Import CSV");
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Runs a Monte Carlo simulation of the savings goal on a background
+     * thread, showing progress under the savings card. Clicking the button
+     * again cancels.
+     */
+    private static void startSimulation(GUIController gui, JButton simulateBtn, JProgressBar progress,
+            JLabel resultLabel, MonteCarloSimulator[] runningSimulation) {
+        User user = gui.getCurrentUser();
+        if (user == null) {
+            return;
+        }
+        MonteCarloSimulator simulator = new MonteCarloSimulator();
+        runningSimulation[0] = simulator;
+        simulateBtn.setText("Cancel");
+        progress.setValue(0);
+        progress.setVisible(true);
+        YearMonth month = gui.getCurrentMonth();
+        double balance = FinanceManager.calculateBalance(user, LocalDate.now());
+
+        new SwingWorker<MonteCarloSimulator.Result, Integer>() {
+            @Override
+            protected MonteCarloSimulator.Result doInBackground() {
+                return simulator.simulate(user, month, balance, MonteCarloSimulator.DEFAULT_PATHS,
+                        System.nanoTime(), (done, total) -> publish((int) (done * 100 / total)));
+            }
+
+            @Override
+            protected void process(List<Integer> chunks) {
+                progress.setValue(chunks.get(chunks.size() - 1));
+            }
+
+            @Override
+            protected void done() {
+                runningSimulation[0] = null;
+                simulateBtn.setText("Simulate Goal");
+                progress.setVisible(false);
+                try {
+                    MonteCarloSimulator.Result result = get();
+                    if (result.getPaths() == 0) {
+                        resultLabel.setText("Simulation cancelled");
+                    } else if (result.isCancelled()) {
+                        resultLabel.setText(String.format("Cancelled after %,d paths: %.0f%% chance of reaching the"
+                                + " goal by the target date", result.getPaths(), result.getProbability() * 100));
+                    } else {
+                        resultLabel.setText(String.format("%.0f%% chance of reaching the goal by the target date;"
+                                + " median final balance %s", result.getProbability() * 100,
+                                FinanceManager.formatCurrency(result.getMedianBalance())));
                     }
+                } catch (ExecutionException ex) {
+                    resultLabel.setText(ex.getCause().getMessage());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
                 }
-                listPanel.revalidate();
-                listPanel.repaint();
             }
-        };
+        }.execute();
+    }
+
+    /**
+     * Lists the user's recurring transactions and removes the selected ones.
+     * New recurring entries are created from the add transaction form.
+     */
+    private static void manageRecurring(GUIController gui, JComponent parent) {
+        User user = gui.getCurrentUser();
+        if (user == null) {
+            return;
+        }
+        List<RecurringTransaction> rules = new ArrayList<>(user.getRecurringTransactions());
+        if (rules.isEmpty()) {
+            gui.showMessage("No recurring transactions yet. Choose a Repeat option when adding income or an expense.",
+                    "Recurring");
+            return;
+        }
+        JList<RecurringTransaction> list = new JList<>(rules.toArray(new RecurringTransaction[0]));
+        list.setFont(Theme.FONT_BODY);
+        list.setVisibleRowCount(Math.min(rules.size(), 10));
+        Object[] options = { "Remove Selected", "Close" };
+        int choice = JOptionPane.showOptionDialog(parent, new JScrollPane(list), "Recurring Transactions",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.PLAIN_MESSAGE, null, options, options[1]);
+        if (choice == 0 && !list.getSelectedValuesList().isEmpty()) {
+            for (RecurringTransaction rule : list.getSelectedValuesList()) {
+                user.removeRecurringTransaction(rule);
+            }
+            gui.refreshAllPanels();
+        }
+    }
+
+    /**
+     * Shows the user's keyword rules as "keyword = Category" lines and applies
+     * the edited text. Rules are used to categorize imports and new entries.
+     */
+    private static void editCategoryRules(GUIController gui, JComponent parent) {
+        User user = gui.getCurrentUser();
+        if (user == null) {
+            return;
+        }
+        Map<String, String> rules = user.getCategoryRules();
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, String> rule : rules.entrySet()) {
+            text.append(rule.getKey()).append(" = ").append(rule.getValue()).append('\n');
+        }
+        JTextArea area = new JTextArea(text.toString(), 12, 36);
+        area.setFont(Theme.FONT_BODY);
+        JPanel content = new JPanel(new BorderLayout(0, 8));
+        content.add(new JLabel("One rule per line, e.g. \"coffee = Food\". Names containing the keyword get the category."),
+                BorderLayout.NORTH);
+        content.add(new JScrollPane(area), BorderLayout.CENTER);
+        if (JOptionPane.showConfirmDialog(parent, content, "Category Rules", JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        Map<String, String> edited = new LinkedHashMap<>();
+        for (String line : area.getText().split("\n")) {
+            int separator = line.indexOf('=');
+            if (separator > 0 && !line.substring(0, separator).trim().isEmpty()
+                    && !line.substring(separator + 1).trim().isEmpty() && line.indexOf('|') < 0) {
+                edited.put(line.substring(0, separator).trim().toLowerCase(Locale.ROOT),
+                        line.substring(separator + 1).trim());
+            }
+        }
+        for (String keyword : rules.keySet()) {
+            if (!edited.containsKey(keyword)) {
+                user.removeCategoryRule(keyword);
+            }
+        }
+        for (Map.Entry<String, String> rule : edited.entrySet()) {
+            if (!rule.getValue().equals(rules.get(rule.getKey()))) {
+                user.addCategoryRule(rule.getKey(), rule.getValue());
+            }
+        }
+    }
+
+    /**
+     * Asks what to export and where, then streams the file on a background
+     * thread. The format follows the chosen file extension.
+     */
+    private static void startExport(GUIController gui, JComponent parent, JButton exportBtn) {
+        User user = gui.getCurrentUser();
+        if (user == null) {
+            return;
+        }
+        TransactionExporter.Report report = (TransactionExporter.Report) JOptionPane.showInputDialog(parent,
+                "What would you like to export?", "Export", JOptionPane.PLAIN_MESSAGE, null,
+                TransactionExporter.Report.values(), TransactionExporter.Report.TRANSACTIONS);
+        if (report == null) {
+            return;
+        }
+
+        JFileChooser chooser = new JFileChooser();
+        FileNameExtensionFilter csvFilter = new FileNameExtensionFilter("CSV files (*.csv)", "csv");
+        FileNameExtensionFilter jsonFilter = new FileNameExtensionFilter("JSON files (*.json)", "json");
+        chooser.addChoosableFileFilter(csvFilter);
+        chooser.addChoosableFileFilter(jsonFilter);
+        chooser.setFileFilter(csvFilter);
+        if (chooser.showSaveDialog(parent) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        String path = chooser.getSelectedFile().getPath();
+        String lowerPath = path.toLowerCase(Locale.ROOT);
+        boolean json = lowerPath.endsWith(".json")
+                || (chooser.getFileFilter() == jsonFilter && !lowerPath.endsWith(".csv"));
+        TransactionExporter.Format format = json ? TransactionExporter.Format.JSON : TransactionExporter.Format.CSV;
+        String extension = json ? ".json" : ".csv";
+        Path target = Paths.get(lowerPath.endsWith(extension) ? path : path + extension);
+
+        exportBtn.setEnabled(false);
+        YearMonth month = gui.getCurrentMonth();
+        new SwingWorker<Long, Void>() {
+            @Override
+            protected Long doInBackground() throws Exception {
+                try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    return new TransactionExporter(channel).export(report, format, user, month, LocalDate.now(), null);
+                }
+            }
+
+            @Override
+            protected void done() {
+                exportBtn.setEnabled(true);
+                try {
+                    gui.showMessage("Exported " + get() + " rows to " + target.getFileName() + ".", "Export");
+                } catch (ExecutionException ex) {
+                    gui.showError("Export failed: " + ex.getCause().getMessage(), "Export");
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Asks for a spending change and an extra monthly expense, then compares
+     * the last twelve finished months with and without them. The scenario is
+     * an overlay on the real transactions, which are never changed.
+     */
+    private static void showWhatIf(GUIController gui, JComponent parent) {
+        User user = gui.getCurrentUser();
+        if (user == null) {
+            return;
+        }
+        List<Transaction> transactions = user.getTransactions();
+        List<RecurringTransaction> rules = user.getRecurringTransactions();
+        Set<String> categorySet = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        categorySet.addAll(CategoryReportManager.getCategoryBreakdown(transactions).keySet());
+        for (RecurringTransaction rule : rules) {
+            if (!rule.isIncome()) {
+                categorySet.add(rule.getCategoryOrSource());
+            }
+        }
+        List<String> categories = new ArrayList<>(categorySet);
+        categories.add(0, "(none)");
+
+        JComboBox<String> categoryBox = new JComboBox<>(categories.toArray(new String[0]));
+        JTextField percentField = new JTextField("-20", 6);
+        JTextField monthlyField = new JTextField("0", 8);
+        JPanel form = new JPanel(new GridLayout(3, 2, 8, 8));
+        form.add(new JLabel("Category to change:"));
+        form.add(categoryBox);
+        form.add(new JLabel("Change (%):"));
+        form.add(percentField);
+        form.add(new JLabel("Extra monthly expense:"));
+        form.add(monthlyField);
+        if (JOptionPane.showConfirmDialog(parent, form, "What If", JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        double percent;
+        double monthly;
+        try {
+            percent = Double.parseDouble(percentField.getText().trim());
+            monthly = Double.parseDouble(monthlyField.getText().trim());
+        } catch (NumberFormatException ex) {
+            gui.showError("Enter numbers for the change and the monthly expense.", "Validation Error");
+            return;
+        }
+        if (percent < -100 || monthly < 0) {
+            gui.showError("The change must be at least -100% and the expense not negative.", "Validation Error");
+            return;
+        }
+
+        YearMonth current = gui.getCurrentMonth();
+        LocalDate from = current.minusMonths(12).atDay(1);
+        LocalDate to = current.minusMonths(1).atEndOfMonth();
+        // Recurring occurrences join both views so a category change covers them too
+        ScenarioView actual = new ScenarioView(transactions);
+        for (RecurringTransaction rule : rules) {
+            actual.addRecurring(rule, from, to);
+        }
+        ScenarioView scenario = actual.fork();
+        if (categoryBox.getSelectedIndex() > 0) {
+            scenario.scaleCategory((String) categoryBox.getSelectedItem(), 1 + percent / 100);
+        }
+        if (monthly > 0) {
+            scenario.addRecurring(new RecurringTransaction("What if", monthly, "What if", false,
+                    RecurringTransaction.Frequency.MONTHLY, from, null), from, to);
+        }
+
+        double[] base = FinanceManager.calculateTotals(actual, from, to);
+        double[] changed = FinanceManager.calculateTotals(scenario, from, to);
+        double baseNet = base[0] - base[1];
+        double changedNet = changed[0] - changed[1];
+        double difference = changedNet - baseNet;
+        gui.showMessage(String.format("Over the last 12 months (%s to %s):%n%nActual net savings: %s%n"
+                + "With these changes: %s%nDifference: %s (%s per month)", YearMonth.from(from), YearMonth.from(to),
+                FinanceManager.formatCurrency(baseNet), FinanceManager.formatCurrency(changedNet),
+                FinanceManager.formatCurrency(difference), FinanceManager.formatCurrency(difference / 12)),
+                "What If");
+    }
+
+    private static JTextField createFilterField(int columns) {
+        RoundedTextField field = new RoundedTextField(columns, Theme.RADIUS_SMALL);
+        field.setFont(Theme.FONT_BODY);
+        field.setForeground(Theme.TEXT_PRIMARY);
+        field.setBackground(Theme.SURFACE);
+        field.setCaretColor(Theme.PRIMARY);
+        field.setBorder(BorderFactory.createEmptyBorder(6, 10, 6, 10));
+        return field;
+    }
+
+    private static JLabel createFilterLabel(String text) {
+        JLabel label = new JLabel(text);
+        label.setFont(Theme.FONT_SMALL);
+        label.setForeground(Theme.TEXT_SECONDARY);
+        return label;
+    }
+
+    private static LocalDate parseDateOrNull(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(text.trim());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Marks a date filter field red when it holds text that is not a date.
+     *
+     * @return true if the field is empty or holds a valid date.
+     */
+    private static boolean checkDateField(JTextField field) {
+        String text = field.getText().trim();
+        boolean valid = text.isEmpty() || parseDateOrNull(text) != null;
+        field.setForeground(valid ? Theme.TEXT_PRIMARY : Theme.DANGER);
+        field.setToolTipText(valid ? "YYYY-MM-DD" : "Not a valid date; use YYYY-MM-DD");
+        return valid;
     }
 
     // Helper for full width transaction item with actions
@@ -756,7 +1444,7 @@ public class PanelFactory {
 
         // Left: Icon + Type
         JLabel icon = new JLabel(t instanceof Income ? "💰" : "💸");
-        icon.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 24));
+        icon.setFont(Theme.FONT_ICON);
 
         JPanel left = new JPanel(new GridLayout(2, 1));
         left.setOpaque(false);
@@ -840,8 +1528,20 @@ public class PanelFactory {
         JButton backBtn = Theme.createButton("Back to Dashboard", false);
         backBtn.addActionListener(e -> gui.showDashboard());
 
+        JButton exportBtn = Theme.createButton("Export", false);
+        exportBtn.addActionListener(e -> startExport(gui, main, exportBtn));
+
+        JButton whatIfBtn = Theme.createButton("What If", false);
+        whatIfBtn.addActionListener(e -> showWhatIf(gui, main));
+
+        JPanel headerActions = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+        headerActions.setOpaque(false);
+        headerActions.add(whatIfBtn);
+        headerActions.add(exportBtn);
+        headerActions.add(backBtn);
+
         header.add(title, BorderLayout.WEST);
-        header.add(backBtn, BorderLayout.EAST);
+        header.add(headerActions, BorderLayout.EAST);
         main.add(header, BorderLayout.NORTH);
 
         // Scrollable Content
@@ -857,6 +1557,18 @@ public class PanelFactory {
         scroll.getVerticalScrollBar().setUnitIncrement(16);
         main.add(scroll, BorderLayout.CENTER);
 
+        // Charts are built once and keep their rendered image between refreshes
+        TrendChart monthlyChart = new TrendChart(260);
+        monthlyChart.setXLabelFormat(
+                x -> YearMonth.of((int) x / 12, (int) x % 12 + 1).format(DateTimeFormatter.ofPattern("MMM yyyy")));
+        TrendChart balanceChart = new TrendChart(260);
+        balanceChart.setXLabelFormat(x -> LocalDate.ofEpochDay((long) x).toString());
+        ShareChart categoryChart = new ShareChart(240);
+
+        JPanel monthlyCard = createChartCard("Monthly Income vs Expenses", monthlyChart);
+        JPanel balanceCard = createChartCard("Balance Over Time", balanceChart);
+        JPanel categoryCard = createChartCard("Expense Breakdown by Category", categoryChart);
+
         return new RefreshablePanel(main) {
             @Override
             public void refresh() {
@@ -865,9 +1577,11 @@ public class PanelFactory {
                 if (user == null)
                     return;
 
-                List<Transaction> transactions = user.getTransactions();
-                double income = FinanceManager.calculateTotalIncome(transactions);
-                double expenses = FinanceManager.calculateTotalExpenses(transactions);
+                LocalDate today = LocalDate.now();
+                double[] recurring = FinanceManager.calculateRecurringTotals(user.getRecurringTransactions(),
+                        LocalDate.MIN, today);
+                double income = user.getTotalIncome() + recurring[0];
+                double expenses = user.getTotalExpenses() + recurring[1];
                 double savings = income - expenses;
 
                 // 1. Overview Card
@@ -885,31 +1599,52 @@ public class PanelFactory {
                 content.add(overview);
                 content.add(Box.createVerticalStrut(30));
 
-                // 2. Category Breakdown
-                JLabel catTitle = new JLabel("Expense Breakdown by Category");
-                catTitle.setFont(Theme.FONT_HEADING);
-                catTitle.setForeground(Theme.TEXT_PRIMARY);
-                catTitle.setAlignmentX(Component.LEFT_ALIGNMENT);
-                content.add(catTitle);
-                content.add(Box.createVerticalStrut(15));
-
-                Map<String, Double> categories = CategoryReportManager.getCategoryBreakdown(transactions);
-                if (categories.isEmpty()) {
-                    JLabel empty = new JLabel("No expenses recorded.");
-                    empty.setFont(Theme.FONT_BODY);
-                    empty.setForeground(Theme.TEXT_SECONDARY);
-                    content.add(empty);
+                // 2. Monthly Trend
+                SortedMap<YearMonth, double[]> monthly = MonthlyReportManager.getMonthlyTotals(user, gui.getCurrentMonth());
+                if (monthly.isEmpty()) {
+                    monthlyChart.setData(new double[0], new String[0], new double[0][], new Color[0]);
                 } else {
-                    // Sort by amount descending
-                    categories.entrySet().stream()
-                            .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
-                            .forEach(entry -> {
-                                double amt = entry.getValue();
-                                double pct = (expenses > 0) ? (amt / expenses) * 100 : 0;
-                                content.add(createCategoryBar(entry.getKey(), amt, pct));
-                                content.add(Box.createVerticalStrut(15));
-                            });
+                    // Continuous month axis so gaps show as zero activity
+                    YearMonth first = monthly.firstKey();
+                    int months = (int) first.until(monthly.lastKey(), ChronoUnit.MONTHS) + 1;
+                    double[] xs = new double[months];
+                    double[] inc = new double[months];
+                    double[] exp = new double[months];
+                    for (int i = 0; i < months; i++) {
+                        YearMonth ym = first.plusMonths(i);
+                        xs[i] = ym.getYear() * 12 + ym.getMonthValue() - 1;
+                        double[] totals = monthly.get(ym);
+                        if (totals != null) {
+                            inc[i] = totals[0];
+                            exp[i] = totals[1];
+                        }
+                    }
+                    monthlyChart.setData(xs, new String[] { "Income", "Expenses" }, new double[][] { inc, exp },
+                            new Color[] { Theme.SUCCESS, Theme.DANGER });
+                }
+                content.add(monthlyCard);
+                content.add(Box.createVerticalStrut(30));
+
+                // 3. Balance Over Time
+                double[][] daily = MonthlyReportManager.getDailyBalanceSeries(user, today);
+                balanceChart.setData(daily[0], new String[] { "Balance" }, new double[][] { daily[1] },
+                        new Color[] { Theme.INFO });
+                content.add(balanceCard);
+                content.add(Box.createVerticalStrut(30));
+
+                // 4. Category Breakdown
+                Map<String, Double> categories = CategoryReportManager.getCategoryBreakdown(user, today);
+                List<Map.Entry<String, Double>> sorted = categories.entrySet().stream()
+                        .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                        .collect(Collectors.toList());
+                String[] labels = new String[sorted.size()];
+                double[] amounts = new double[sorted.size()];
+                for (int i = 0; i < sorted.size(); i++) {
+                    labels[i] = sorted.get(i).getKey();
+                    amounts[i] = sorted.get(i).getValue();
                 }
+                categoryChart.setShares(labels, amounts);
+                content.add(categoryCard);
 
                 content.revalidate();
                 content.repaint();
@@ -931,36 +1666,20 @@ public class PanelFactory {
         return p;
     }
 
-    private static JPanel createCategoryBar(String category, double amount, double percentage) {
-        JPanel panel = new JPanel(new BorderLayout(10, 5));
-        panel.setOpaque(false);
-        panel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 50));
-
-        JPanel top = new JPanel(new BorderLayout());
-        top.setOpaque(false);
-        JLabel name = new JLabel(category);
-        name.setFont(Theme.FONT_BODY);
-        name.setForeground(Theme.TEXT_PRIMARY);
-
-        JLabel val = new JLabel(String.format("%s (%.1f%%)", FinanceManager.formatCurrency(amount), percentage));
-        val.setFont(Theme.FONT_BODY);
-        val.setForeground(Theme.TEXT_PRIMARY);
+    private static JPanel createChartCard(String title, ChartPanel chart) {
+        RoundedPanel card = new RoundedPanel(Theme.RADIUS_MEDIUM, null);
+        card.setBackground(Theme.SURFACE);
+        card.setLayout(new BorderLayout(0, 15));
+        card.setBorder(new EmptyBorder(25, 25, 25, 25));
+        card.setMaximumSize(new Dimension(Integer.MAX_VALUE, chart.getPreferredSize().height + 90));
 
-        top.add(name, BorderLayout.WEST);
-        top.add(val, BorderLayout.EAST);
+        JLabel label = new JLabel(title);
+        label.setFont(Theme.FONT_HEADING);
+        label.setForeground(Theme.TEXT_PRIMARY);
 
-        JProgressBar bar = new JProgressBar(0, 100);
-        bar.setValue((int) percentage);
-        bar.setStringPainted(false);
-        bar.setBackground(Theme.SURFACE);
-        bar.setForeground(Theme.PRIMARY);
-        bar.setBorderPainted(false);
-        bar.setPreferredSize(new Dimension(100, 8));
-
-        panel.add(top, BorderLayout.CENTER);
-        panel.add(bar, BorderLayout.SOUTH);
-
-        return panel;
+        card.add(label, BorderLayout.NORTH);
+        card.add(chart, BorderLayout.CENTER);
+        return card;
     }
 
     /**
@@ -0,0 +1,254 @@
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A repeating income or expense, such as rent, salary or a subscription.
+ * Occurrences are never stored: they are counted arithmetically for totals
+ * (constant time per period) and only turned into Income/Expense objects for
+ * the date range a view asks for, so nothing is materialized ahead of time.
+ * <p>
+ * Monthly and yearly occurrences keep the start date's day, falling back to
+ * the last day of shorter months (a rule starting Jan 31 runs on Feb 28).
+ */
+public class RecurringTransaction {
+    /**
+     * How often the transaction repeats.
+     */
+    public enum Frequency {
+        WEEKLY("Weekly", 7, 0),
+        BIWEEKLY("Every 2 weeks", 14, 0),
+        MONTHLY("Monthly", 0, 1),
+        YEARLY("Yearly", 0, 12);
+
+        private final String label;
+        private final int days;
+        private final int months;
+
+        Frequency(String label, int days, int months) {
+            this.label = label;
+            this.days = days;
+            this.months = months;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+
+        /**
+         * Finds a frequency by its display label.
+         *
+         * @param label The label, e.g. "Monthly".
+         * @return The frequency, or null if none matches.
+         */
+        public static Frequency fromLabel(String label) {
+            for (Frequency frequency : values()) {
+                if (frequency.label.equalsIgnoreCase(label)) {
+                    return frequency;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final String name;
+    private final double amount;
+    private final String categoryOrSource;
+    private final boolean income;
+    private final Frequency frequency;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+
+    /**
+     * Creates a recurring transaction.
+     *
+     * @param name             The name of each occurrence.
+     * @param amount           The amount of each occurrence.
+     * @param categoryOrSource Expense category or income source.
+     * @param income           true for income, false for an expense.
+     * @param frequency        How often it repeats.
+     * @param startDate        The first occurrence.
+     * @param endDate          The last possible occurrence, or null for none.
+     */
+    public RecurringTransaction(String name, double amount, String categoryOrSource, boolean income,
+            Frequency frequency, LocalDate startDate, LocalDate endDate) {
+        this.name = name;
+        this.amount = amount;
+        this.categoryOrSource = categoryOrSource;
+        this.income = income;
+        this.frequency = frequency;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public String getCategoryOrSource() {
+        return categoryOrSource;
+    }
+
+    public boolean isIncome() {
+        return income;
+    }
+
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    /**
+     * Counts occurrences between two dates without iterating over them.
+     *
+     * @param from The first day (inclusive).
+     * @param to   The last day (inclusive).
+     * @return The number of occurrences in the range.
+     */
+    public int countOccurrences(LocalDate from, LocalDate to) {
+        long[] range = occurrenceRange(from, to);
+        return range == null ? 0 : (int) (range[1] - range[0] + 1);
+    }
+
+    /**
+     * Counts occurrences in a calendar month.
+     *
+     * @param month The month.
+     * @return The number of occurrences in that month.
+     */
+    public int countOccurrences(YearMonth month) {
+        return countOccurrences(month.atDay(1), month.atEndOfMonth());
+    }
+
+    /**
+     * Returns the total amount of the occurrences between two dates.
+     *
+     * @param from The first day (inclusive).
+     * @param to   The last day (inclusive).
+     * @return The amount times the number of occurrences.
+     */
+    public double totalBetween(LocalDate from, LocalDate to) {
+        return amount * countOccurrences(from, to);
+    }
+
+    /**
+     * Generates the occurrences between two dates as unsaved transactions
+     * (id 0), for showing in a month view.
+     *
+     * @param from The first day (inclusive).
+     * @param to   The last day (inclusive).
+     * @return The occurrences in date order.
+     */
+    public List<Transaction> occurrencesBetween(LocalDate from, LocalDate to) {
+        List<Transaction> occurrences = new ArrayList<>();
+        long[] range = occurrenceRange(from, to);
+        if (range == null) {
+            return occurrences;
+        }
+        for (long k = range[0]; k <= range[1]; k++) {
+            LocalDate date = occurrence(k);
+            occurrences.add(income ? new Income(name, amount, categoryOrSource, date)
+                    : new Expense(name, amount, categoryOrSource, date));
+        }
+        return occurrences;
+    }
+
+    /**
+     * Returns the date of the k-th occurrence, counting the start date as 0.
+     */
+    private LocalDate occurrence(long k) {
+        return frequency.days > 0 ? startDate.plusDays(k * frequency.days)
+                : startDate.plusMonths(k * frequency.months);
+    }
+
+    /**
+     * Index of the last occurrence in the same period as the date; its date
+     * may still fall after the given date within that period.
+     */
+    private long periodIndex(LocalDate date) {
+        if (frequency.days > 0) {
+            return ChronoUnit.DAYS.between(startDate, date) / frequency.days;
+        }
+        return YearMonth.from(startDate).until(YearMonth.from(date), ChronoUnit.MONTHS) / frequency.months;
+    }
+
+    /**
+     * Finds the first and last occurrence indexes inside a date range.
+     *
+     * @return {first, last}, or null if there are no occurrences.
+     */
+    private long[] occurrenceRange(LocalDate from, LocalDate to) {
+        LocalDate first = from.isBefore(startDate) ? startDate : from;
+        LocalDate last = endDate != null && endDate.isBefore(to) ? endDate : to;
+        if (first.isAfter(last)) {
+            return null;
+        }
+        long firstIndex = periodIndex(first);
+        if (occurrence(firstIndex).isBefore(first)) {
+            firstIndex++;
+        }
+        long lastIndex = periodIndex(last);
+        if (occurrence(lastIndex).isAfter(last)) {
+            lastIndex--;
+        }
+        return firstIndex <= lastIndex ? new long[] { firstIndex, lastIndex } : null;
+    }
+
+    /**
+     * Formats the rule for the user file.
+     * Uses a pipe (|) delimiter; the end date is empty when there is none.
+     *
+     * @return A string suitable for saving to a file.
+     */
+    public String formatForFile() {
+        return String.format("%s|%s|%.2f|%s|%s|%s|%s",
+                income ? "Income" : "Expense",
+                name,
+                amount,
+                categoryOrSource,
+                frequency.name(),
+                startDate.toString(),
+                endDate == null ? "" : endDate.toString());
+    }
+
+    /**
+     * Reconstructs a rule from a file string.
+     *
+     * @param fileString The pipe-delimited string from the file.
+     * @return A new RecurringTransaction, or null if parsing fails.
+     */
+    public static RecurringTransaction fromFileString(String fileString) {
+        String[] parts = fileString.split("\\|", -1);
+        if (parts.length < 6) {
+            return null;
+        }
+        try {
+            LocalDate endDate = parts.length > 6 && !parts[6].isEmpty() ? LocalDate.parse(parts[6]) : null;
+            return new RecurringTransaction(parts[1], Double.parseDouble(parts[2]), parts[3],
+                    parts[0].equals("Income"), Frequency.valueOf(parts[4]), LocalDate.parse(parts[5]), endDate);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s - $%.2f %s (%s, from %s%s)", income ? "Income" : "Expense", name, amount,
+                frequency.toString().toLowerCase(), categoryOrSource, startDate,
+                endDate == null ? "" : " to " + endDate);
+    }
+}
@@ -1,6 +1,5 @@
 import javax.swing.*;
 import java.awt.*;
-import java.awt.geom.RoundRectangle2D;
 
 /**
  * /**
@@ -48,14 +47,8 @@ public class RoundedButton extends JButton {
 
     @Override
     protected void paintComponent(Graphics g) {
-        Graphics2D g2 = (Graphics2D) g.create();
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-        // Draw rounded background
-        g2.setColor(isHovered ? hoverColor : backgroundColor);
-        g2.fillRoundRect(0, 0, getWidth(), getHeight(), radius, radius);
-
-        g2.dispose();
+        BackgroundCache.paintRoundRect(g, getWidth(), getHeight(), radius, isHovered ? hoverColor : backgroundColor,
+                null, 0f, 0);
         super.paintComponent(g);
     }
 
@@ -3,7 +3,8 @@ import java.awt.*;
 
 /**
  * A custom JPanel that supports rounded corners and optional border color.
- * Uses anti-aliasing for smooth rendering.
+ * Uses anti-aliasing for smooth rendering; the rendered shape is cached in
+ * BackgroundCache.
  */
 public class RoundedPanel extends JPanel {
     private int radius;
@@ -32,30 +33,14 @@ public class RoundedPanel extends JPanel {
 
     @Override
     protected void paintComponent(Graphics g) {
-        Graphics2D g2 = (Graphics2D) g.create();
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-
-        // Draw rounded background
-        g2.setColor(getBackground());
-        g2.fillRoundRect(0, 0, getWidth(), getHeight(), radius, radius);
-
-        g2.dispose();
+        // Background and border come from one cached raster shared by all
+        // panels of the same size and colors
+        BackgroundCache.paintRoundRect(g, getWidth(), getHeight(), radius, getBackground(), borderColor, 1.5f, 0);
         super.paintComponent(g);
     }
 
     @Override
     protected void paintBorder(Graphics g) {
-        if (borderColor != null) {
-            Graphics2D g2 = (Graphics2D) g.create();
-            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-            // Draw a slightly thicker border for better visibility
-            g2.setStroke(new BasicStroke(1.5f));
-            g2.setColor(borderColor);
-            g2.drawRoundRect(0, 0, getWidth() - 1, getHeight() - 1, radius, radius);
-
-            g2.dispose();
-        }
+        // Border is part of the cached background image
     }
 }
@@ -41,27 +41,13 @@ public class RoundedPasswordField extends JPasswordField {
 
     @Override
     protected void paintComponent(Graphics g) {
-        Graphics2D g2 = (Graphics2D) g.create();
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-        // Draw rounded background
-        g2.setColor(getBackground());
-        g2.fillRoundRect(0, 0, getWidth(), getHeight(), radius, radius);
-
-        g2.dispose();
+        BackgroundCache.paintRoundRect(g, getWidth(), getHeight(), radius, getBackground(),
+                isFocused ? focusBorderColor : borderColor, 2f, 1);
         super.paintComponent(g);
     }
 
     @Override
     protected void paintBorder(Graphics g) {
-        Graphics2D g2 = (Graphics2D) g.create();
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-        // Draw rounded border
-        g2.setColor(isFocused ? focusBorderColor : borderColor);
-        g2.setStroke(new BasicStroke(2));
-        g2.drawRoundRect(1, 1, getWidth() - 2, getHeight() - 2, radius, radius);
-
-        g2.dispose();
+        // Border is part of the cached background image
     }
 }
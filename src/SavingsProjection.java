@@ -0,0 +1,230 @@
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.TreeSet;
+
+/**
+ * Least-squares trend of monthly net savings (income minus expenses),
+ * kept up to date incrementally so a forecast costs O(1) no matter how
+ * long the history is.
+ * <p>
+ * The owning User reports every change to a month's net, and the sums
+ * the regression needs (sum of y and of x*y, in cents) are adjusted by that
+ * delta. The fit covers every month from the first to the last with
+ * activity; quiet months count as zero savings, so the sums of x and x^2
+ * follow in closed form from the span. The current month is left out
+ * because it is not finished yet.
+ * <p>
+ * Not thread-safe; User calls it under its own lock.
+ */
+public class SavingsProjection {
+    // Forecasts further out than this report the goal as unreachable
+    private static final int MAX_MONTHS = 1200;
+
+    private final TreeSet<Integer> activeMonths = new TreeSet<>();
+    private long sumNetCents;
+    private long sumIndexNetCents;
+
+    /**
+     * The outcome of a forecast.
+     */
+    public static final class Forecast {
+        private final double monthlyTrend;
+        private final double nextMonthNet;
+        private final int monthsOfHistory;
+        private final int monthsToGoal;
+        private final LocalDate goalDate;
+        private final double requiredMonthlySaving;
+
+        Forecast(double monthlyTrend, double nextMonthNet, int monthsOfHistory, int monthsToGoal,
+                LocalDate goalDate, double requiredMonthlySaving) {
+            this.monthlyTrend = monthlyTrend;
+            this.nextMonthNet = nextMonthNet;
+            this.monthsOfHistory = monthsOfHistory;
+            this.monthsToGoal = monthsToGoal;
+            this.goalDate = goalDate;
+            this.requiredMonthlySaving = requiredMonthlySaving;
+        }
+
+        /**
+         * Returns how much the monthly net changes per month (the slope).
+         */
+        public double getMonthlyTrend() {
+            return monthlyTrend;
+        }
+
+        /**
+         * Returns the predicted net savings for next month.
+         */
+        public double getNextMonthNet() {
+            return nextMonthNet;
+        }
+
+        /**
+         * Returns the number of finished months the trend is fitted on.
+         */
+        public int getMonthsOfHistory() {
+            return monthsOfHistory;
+        }
+
+        /**
+         * Returns the months until the goal is reached: 0 if already reached,
+         * -1 if the trend never reaches it.
+         */
+        public int getMonthsToGoal() {
+            return monthsToGoal;
+        }
+
+        /**
+         * Returns the predicted date the goal is reached (end of that month),
+         * or null if it is never reached.
+         */
+        public LocalDate getGoalDate() {
+            return goalDate;
+        }
+
+        /**
+         * Returns the saving needed each month to reach the goal by the
+         * target, or 0 if there is no target or the goal is reached.
+         */
+        public double getRequiredMonthlySaving() {
+            return requiredMonthlySaving;
+        }
+
+        public boolean isReachable() {
+            return monthsToGoal >= 0;
+        }
+    }
+
+    /**
+     * Records that a month has its first transaction.
+     *
+     * @param month The month.
+     */
+    void addMonth(YearMonth month) {
+        activeMonths.add(index(month));
+    }
+
+    /**
+     * Records that a month no longer has any transactions.
+     *
+     * @param month The month.
+     */
+    void removeMonth(YearMonth month) {
+        activeMonths.remove(index(month));
+    }
+
+    /**
+     * Adjusts a month's net savings.
+     *
+     * @param month The month.
+     * @param cents The change in net savings, in cents.
+     */
+    void addNet(YearMonth month, long cents) {
+        sumNetCents += cents;
+        sumIndexNetCents += index(month) * cents;
+    }
+
+    /**
+     * Predicts when the savings goal will be reached from the fitted trend.
+     *
+     * @param current             The current, unfinished month.
+     * @param currentNetCents     Net savings recorded in the current month, in cents.
+     * @param balance             The balance today.
+     * @param recurringMonthlyNet Net of recurring transactions per month, added
+     *                            to every future month.
+     * @param goal                The savings goal; 0 for none.
+     * @param targetMonth         The month the goal should be reached by, or null.
+     * @return The forecast.
+     */
+    Forecast forecast(YearMonth current, long currentNetCents, double balance, double recurringMonthlyNet,
+            double goal, YearMonth targetMonth) {
+        int now = index(current);
+        double slope = 0;
+        double intercept = 0;
+        int months = 0;
+        if (!activeMonths.isEmpty()) {
+            int first = activeMonths.first();
+            int last = activeMonths.last();
+            long n = last - first + 1;
+            double sumX = (double) (first + last) * n / 2;
+            double sumXX = sumOfSquares(last) - sumOfSquares(first - 1);
+            double sumY = sumNetCents / 100.0;
+            double sumXY = sumIndexNetCents / 100.0;
+            if (now >= first && now <= last) {
+                // Leave the unfinished current month out of the fit
+                n--;
+                sumX -= now;
+                sumXX -= (double) now * now;
+                sumY -= currentNetCents / 100.0;
+                sumXY -= now * (currentNetCents / 100.0);
+            }
+            months = (int) n;
+            if (n > 0) {
+                double denominator = n * sumXX - sumX * sumX;
+                slope = n > 1 && denominator != 0 ? (n * sumXY - sumX * sumY) / denominator : 0;
+                intercept = (sumY - slope * sumX) / n;
+            }
+        }
+
+        // Net for month now + k is a + b*(now + k); a includes recurring amounts
+        double a = intercept + recurringMonthlyNet;
+        double nextMonthNet = a + slope * (now + 1);
+        double remaining = goal - balance;
+
+        int monthsToGoal;
+        if (goal <= 0 || remaining <= 0) {
+            monthsToGoal = 0;
+        } else {
+            monthsToGoal = monthsToReach(remaining, a + slope * now, slope);
+        }
+        LocalDate goalDate = monthsToGoal < 0 ? null : current.plusMonths(monthsToGoal).atEndOfMonth();
+
+        double required = 0;
+        if (goal > 0 && remaining > 0 && targetMonth != null) {
+            long left = Math.max(1, current.until(targetMonth, ChronoUnit.MONTHS));
+            required = remaining / left;
+        }
+        return new Forecast(slope, nextMonthNet, months, monthsToGoal, goalDate, required);
+    }
+
+    /**
+     * Smallest k with sum over i = 1..k of (base + slope * i) >= remaining,
+     * solved from the quadratic instead of stepping month by month.
+     */
+    private static int monthsToReach(double remaining, double base, double slope) {
+        // Cumulative savings after k months: slope/2 k^2 + (base + slope/2) k
+        double qa = slope / 2;
+        double qb = base + slope / 2;
+        double k;
+        if (Math.abs(qa) < 1e-9) {
+            if (qb <= 0) {
+                return -1;
+            }
+            k = remaining / qb;
+        } else {
+            double discriminant = qb * qb + 4 * qa * remaining;
+            if (discriminant < 0) {
+                return -1; // Declining trend peaks below the goal
+            }
+            // For a falling trend this is the smaller root, when the goal is first met
+            k = (-qb + Math.sqrt(discriminant)) / (2 * qa);
+            if (k <= 0) {
+                return -1;
+            }
+        }
+        if (k > MAX_MONTHS || Double.isNaN(k)) {
+            return -1;
+        }
+        return (int) Math.max(1, Math.ceil(k - 1e-9));
+    }
+
+    private static double sumOfSquares(long n) {
+        // Sum of i^2 for i = 1..n; indexes are positive
+        return n <= 0 ? 0 : n * (n + 1.0) * (2 * n + 1.0) / 6;
+    }
+
+    private static int index(YearMonth month) {
+        return month.getYear() * 12 + month.getMonthValue() - 1;
+    }
+}
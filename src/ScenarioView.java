@@ -0,0 +1,143 @@
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+
+/**
+ * A "what if" view of a transaction history, e.g. "cut Food by 20%" or "add
+ * a $500 monthly expense", that never touches or copies the real data.
+ * <p>
+ * The view is a read-only List layered over the base list: it stores only
+ * the changes (per-category scale factors and extra transactions) and
+ * applies them as elements are read. Unchanged transactions are returned
+ * as-is, so FinanceManager and the report managers evaluate a scenario at
+ * close to the cost of the base history, and discarding a scenario is just
+ * dropping the reference. Built over User.getTransactions(), the view
+ * stays fixed while the user keeps editing, since that list is an
+ * immutable snapshot.
+ */
+public class ScenarioView extends AbstractList<Transaction> implements RandomAccess {
+    private final List<Transaction> base;
+    // Case-insensitive, so lookups while reading need no lower-casing
+    private final Map<String, Double> categoryFactors;
+    private final List<Transaction> added;
+
+    /**
+     * Creates a scenario with no changes over a base history.
+     *
+     * @param base The real transactions; must not change while the view is used.
+     */
+    public ScenarioView(List<Transaction> base) {
+        this(base, new TreeMap<>(String.CASE_INSENSITIVE_ORDER), new ArrayList<>());
+    }
+
+    private ScenarioView(List<Transaction> base, Map<String, Double> categoryFactors, List<Transaction> added) {
+        this.base = base;
+        this.categoryFactors = categoryFactors;
+        this.added = added;
+    }
+
+    /**
+     * Creates a scenario over a user's current transactions.
+     *
+     * @param user The user.
+     * @return An unchanged scenario.
+     */
+    public static ScenarioView of(User user) {
+        return new ScenarioView(user.getTransactions());
+    }
+
+    /**
+     * Scales every expense in a category, e.g. 0.8 for "cut by 20%",
+     * including added ones such as recurring occurrences. Scaling a
+     * category again replaces the earlier factor.
+     *
+     * @param category The expense category (case-insensitive).
+     * @param factor   The multiplier; 0 removes the category's spending.
+     * @return This view for chaining.
+     */
+    public ScenarioView scaleCategory(String category, double factor) {
+        String key = category.trim();
+        if (factor == 1) {
+            categoryFactors.remove(key);
+        } else {
+            categoryFactors.put(key, Math.max(0, factor));
+        }
+        modCount++;
+        return this;
+    }
+
+    /**
+     * Adds a hypothetical transaction.
+     *
+     * @param transaction The transaction; it is not added to any user.
+     * @return This view for chaining.
+     */
+    public ScenarioView addTransaction(Transaction transaction) {
+        added.add(transaction);
+        modCount++;
+        return this;
+    }
+
+    /**
+     * Adds the occurrences of a hypothetical recurring transaction in a
+     * date range, e.g. a new $500 monthly expense over the next year.
+     *
+     * @param rule The recurring transaction.
+     * @param from The first day (inclusive).
+     * @param to   The last day (inclusive).
+     * @return This view for chaining.
+     */
+    public ScenarioView addRecurring(RecurringTransaction rule, LocalDate from, LocalDate to) {
+        added.addAll(rule.occurrencesBetween(from, to));
+        modCount++;
+        return this;
+    }
+
+    /**
+     * Creates a variant of this scenario that shares the base history and
+     * copies only the changes, so it can be edited independently.
+     *
+     * @return A new view.
+     */
+    public ScenarioView fork() {
+        TreeMap<String, Double> factors = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        factors.putAll(categoryFactors);
+        return new ScenarioView(base, factors, new ArrayList<>(added));
+    }
+
+    /**
+     * Checks whether the scenario changes anything.
+     *
+     * @return true if no changes were made.
+     */
+    public boolean isUnchanged() {
+        return categoryFactors.isEmpty() && added.isEmpty();
+    }
+
+    @Override
+    public Transaction get(int index) {
+        int baseSize = base.size();
+        Transaction t = index < baseSize ? base.get(index) : added.get(index - baseSize);
+        if (categoryFactors.isEmpty() || !(t instanceof Expense)) {
+            return t;
+        }
+        String category = t.getCategoryOrSource();
+        Double factor = category == null ? null : categoryFactors.get(category);
+        if (factor == null) {
+            return t;
+        }
+        // Only changed transactions get a copy, created when read
+        Expense scaled = new Expense(t.getName(), t.getAmount() * factor, category, t.getDate());
+        scaled.setId(t.getId());
+        return scaled;
+    }
+
+    @Override
+    public int size() {
+        return base.size() + added.size();
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Reduces long numeric series to a small number of visually representative
+ * points using the Largest-Triangle-Three-Buckets (LTTB) algorithm.
+ * Used by the charts so a series never draws more points than it has pixels.
+ */
+public class SeriesDownsampler {
+
+    /**
+     * Downsamples a series to at most the given number of points.
+     * The first and last points are always kept.
+     *
+     * @param xs        X values, sorted ascending.
+     * @param ys        Y values, same length as xs.
+     * @param threshold The maximum number of points to keep.
+     * @return Indices into the input arrays of the retained points, ascending.
+     */
+    public static int[] lttb(double[] xs, double[] ys, int threshold) {
+        int n = xs.length;
+        if (n <= threshold) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        if (threshold < 3) {
+            // Too few buckets for LTTB: keep the endpoints only
+            return threshold <= 0 ? new int[0] : threshold == 1 ? new int[] { 0 } : new int[] { 0, n - 1 };
+        }
+
+        int[] sampled = new int[threshold];
+        int sampledIndex = 0;
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+
+        int a = 0;
+        sampled[sampledIndex++] = a;
+
+        for (int i = 0; i < threshold - 2; i++) {
+            // Average point of the next bucket, used as the third triangle vertex
+            int avgStart = (int) Math.floor((i + 1) * bucketSize) + 1;
+            int avgEnd = Math.min((int) Math.floor((i + 2) * bucketSize) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = avgStart; j < avgEnd; j++) {
+                avgX += xs[j];
+                avgY += ys[j];
+            }
+            int avgLength = avgEnd - avgStart;
+            if (avgLength > 0) {
+                avgX /= avgLength;
+                avgY /= avgLength;
+            } else {
+                avgX = xs[n - 1];
+                avgY = ys[n - 1];
+            }
+
+            // Pick the point in the current bucket forming the largest triangle
+            int rangeStart = (int) Math.floor(i * bucketSize) + 1;
+            int rangeEnd = (int) Math.floor((i + 1) * bucketSize) + 1;
+            double ax = xs[a];
+            double ay = ys[a];
+            double maxArea = -1;
+            int next = rangeStart;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = Math.abs((ax - avgX) * (ys[j] - ay) - (ax - xs[j]) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = j;
+                }
+            }
+
+            sampled[sampledIndex++] = next;
+            a = next;
+        }
+
+        sampled[sampledIndex] = n - 1;
+        return sampled;
+    }
+}
@@ -0,0 +1,101 @@
+import java.awt.*;
+import java.awt.geom.Arc2D;
+import java.util.Arrays;
+
+/**
+ * A donut chart with a legend showing how a total splits into named shares
+ * (e.g. expenses per category).
+ */
+public class ShareChart extends ChartPanel {
+    private static final int MAX_SLICES = 8;
+    private static final Color[] PALETTE = {
+            Theme.PRIMARY, Theme.INFO, Theme.WARNING, Theme.DANGER,
+            new Color(168, 85, 247), new Color(236, 72, 153), new Color(20, 184, 166), Theme.TEXT_SECONDARY
+    };
+
+    private String[] labels = new String[0];
+    private double[] values = new double[0];
+
+    /**
+     * Creates an empty share chart.
+     *
+     * @param height The preferred height in pixels.
+     */
+    public ShareChart(int height) {
+        super(height);
+    }
+
+    /**
+     * Replaces the chart data. Shares beyond the largest few are grouped into
+     * "Other". The cached image is kept if nothing changed.
+     *
+     * @param labels Share names, sorted by value descending.
+     * @param values Share amounts, same order as labels.
+     */
+    public void setShares(String[] labels, double[] values) {
+        if (labels.length > MAX_SLICES) {
+            String[] grouped = Arrays.copyOf(labels, MAX_SLICES);
+            double[] groupedValues = Arrays.copyOf(values, MAX_SLICES);
+            grouped[MAX_SLICES - 1] = "Other";
+            for (int i = MAX_SLICES; i < values.length; i++) {
+                groupedValues[MAX_SLICES - 1] += values[i];
+            }
+            labels = grouped;
+            values = groupedValues;
+        }
+        if (Arrays.equals(this.labels, labels) && Arrays.equals(this.values, values)) {
+            return;
+        }
+        this.labels = labels;
+        this.values = values;
+        invalidateChart();
+    }
+
+    @Override
+    protected void renderChart(Graphics2D g2, int width, int height) {
+        double total = 0;
+        for (double v : values) {
+            total += v;
+        }
+        if (values.length == 0 || total <= 0) {
+            drawEmptyMessage(g2, "No expenses recorded.", width, height);
+            return;
+        }
+
+        int diameter = Math.max(10, Math.min(height - 20, width / 2 - 20));
+        int cx = 10;
+        int cy = (height - diameter) / 2;
+
+        double start = 90;
+        for (int i = 0; i < values.length; i++) {
+            double extent = -360.0 * values[i] / total;
+            g2.setColor(PALETTE[i % PALETTE.length]);
+            g2.fill(new Arc2D.Double(cx, cy, diameter, diameter, start, extent, Arc2D.PIE));
+            start += extent;
+        }
+
+        // Punch out the centre to form a donut
+        int hole = diameter / 2;
+        g2.setComposite(AlphaComposite.Clear);
+        g2.fillOval(cx + (diameter - hole) / 2, cy + (diameter - hole) / 2, hole, hole);
+        g2.setComposite(AlphaComposite.SrcOver);
+
+        // Legend
+        g2.setFont(Theme.FONT_BODY);
+        FontMetrics fm = g2.getFontMetrics();
+        int legendX = cx + diameter + 30;
+        int rowHeight = fm.getHeight() + 8;
+        int legendY = Math.max(10, (height - rowHeight * values.length) / 2);
+        for (int i = 0; i < values.length; i++) {
+            int y = legendY + i * rowHeight;
+            g2.setColor(PALETTE[i % PALETTE.length]);
+            g2.fillRoundRect(legendX, y + 2, 12, 12, 4, 4);
+            g2.setColor(Theme.TEXT_PRIMARY);
+            g2.drawString(labels[i], legendX + 20, y + fm.getAscent());
+            String value = String.format("%s (%.1f%%)", FinanceManager.formatCurrency(values[i]),
+                    values[i] / total * 100);
+            g2.setColor(Theme.TEXT_SECONDARY);
+            g2.drawString(value, width - 10 - fm.stringWidth(value), y + fm.getAscent());
+        }
+    }
+}
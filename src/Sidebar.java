@@ -39,12 +39,12 @@ public class Sidebar extends JPanel {
 
         // Icon
         JLabel iconLabel = new JLabel("💎");
-        iconLabel.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 40));
+        iconLabel.setFont(Theme.font("Segoe UI Emoji", Font.PLAIN, 40));
         iconLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
 
         // Title
         JLabel titleLabel = new JLabel("Finance Tracker");
-        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 18));
+        titleLabel.setFont(Theme.FONT_HEADING);
         titleLabel.setForeground(Color.WHITE);
         titleLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
 
@@ -92,7 +92,7 @@ public class Sidebar extends JPanel {
         footerPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 30, 20));
 
         logoutButton = new RoundedButton("🚪 Logout", new Color(254, 226, 226), new Color(254, 202, 202), 10);
-        logoutButton.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        logoutButton.setFont(Theme.FONT_BUTTON);
         logoutButton.setForeground(DANGER_COLOR);
         logoutButton.setPreferredSize(new Dimension(0, 45)); // Full width
         logoutButton.addActionListener(listener);
@@ -121,11 +121,11 @@ public class Sidebar extends JPanel {
         internalPanel.setOpaque(false);
 
         JLabel iconLabel = new JLabel(icon);
-        iconLabel.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 20));
+        iconLabel.setFont(Theme.font("Segoe UI Emoji", Font.PLAIN, 20));
         iconLabel.setForeground(TEXT_COLOR);
 
         JLabel textLabel = new JLabel(text);
-        textLabel.setFont(new Font("Segoe UI", Font.PLAIN, 15));
+        textLabel.setFont(Theme.font("Segoe UI", Font.PLAIN, 15));
         textLabel.setForeground(TEXT_COLOR);
 
         internalPanel.add(iconLabel, BorderLayout.WEST);
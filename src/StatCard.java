@@ -30,25 +30,20 @@ public class StatCard extends RoundedPanel {
                 Theme.PADDING_LARGE));
 
         // Icon panel with colored circle
+        Color iconFill = Theme.withAlpha(accentColor, 30);
         JPanel iconPanel = new JPanel() {
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
+                BackgroundCache.paintCircle(g, 48, iconFill, accentColor, 2f);
+
                 Graphics2D g2 = (Graphics2D) g;
-                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
                 g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-
-                // Draw colored circle
-                g2.setColor(new Color(accentColor.getRed(), accentColor.getGreen(), accentColor.getBlue(), 30));
-                g2.fillOval(0, 0, 48, 48);
-
                 g2.setColor(accentColor);
-                g2.setStroke(new BasicStroke(2));
-                g2.drawOval(0, 0, 48, 48);
 
                 // Draw Icon/Text centered
                 if (iconSymbol != null && !iconSymbol.isEmpty()) {
-                    g2.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 24));
+                    g2.setFont(Theme.FONT_ICON);
                     FontMetrics fm = g2.getFontMetrics();
                     int textWidth = fm.stringWidth(iconSymbol);
                     int textHeight = fm.getAscent();
@@ -0,0 +1,77 @@
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Persistence strategy for user profiles and transactions.
+ * Lets the application and benchmarks swap storage implementations without
+ * touching UI code.
+ */
+public interface StorageBackend {
+
+    /**
+     * Loads a user's profile and transactions.
+     * 
+     * @param username The username to load.
+     * @return The populated User, or null if not found or on error.
+     */
+    User load(String username);
+
+    /**
+     * Saves a user's full profile and transactions.
+     * 
+     * @param user The user to save.
+     * @return true if the save succeeded.
+     */
+    boolean save(User user);
+
+    /**
+     * Saves several users as one batch.
+     * 
+     * @param users The users to save.
+     * @return The number of users saved successfully.
+     */
+    default int saveAll(Collection<User> users) {
+        int saved = 0;
+        for (User user : users) {
+            if (save(user)) {
+                saved++;
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Checks whether a user is stored.
+     * 
+     * @param username The username to check.
+     * @return true if the user exists.
+     */
+    boolean exists(String username);
+
+    /**
+     * Persists a single new transaction without rewriting the whole user.
+     * The transaction must already be in the in-memory User.
+     * 
+     * @param username    The owner of the transaction.
+     * @param transaction The transaction to persist.
+     * @return true if the transaction was persisted.
+     */
+    boolean appendTransaction(String username, Transaction transaction);
+
+    /**
+     * Persists the removal of a single transaction without rewriting the
+     * whole user. The transaction must already be removed from the User.
+     * 
+     * @param username      The owner of the transaction.
+     * @param transactionId The id of the removed transaction.
+     * @return true if the removal was persisted.
+     */
+    boolean appendRemoval(String username, long transactionId);
+
+    /**
+     * Lists all stored usernames.
+     * 
+     * @return Usernames in no particular order.
+     */
+    List<String> listUsers();
+}
@@ -0,0 +1,95 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares save, load and append throughput of the storage backends.
+ * Usage: java StorageBenchmark [users] [transactionsPerUser] [appends]
+ */
+public class StorageBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int userCount = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int transactionsPerUser = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int appends = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+
+        Path textDir = Files.createTempDirectory("storage-bench-text");
+        Path journalDir = Files.createTempDirectory("storage-bench-journal");
+        String originalDir = FileManager.getDataDirectory();
+        FileManager.DurabilityMode originalMode = FileManager.getDurabilityMode();
+        FileManager.setDataDirectory(textDir.toString());
+        FileManager.setDurabilityMode(FileManager.DurabilityMode.NONE);
+
+        try {
+            System.out.printf("%d users x %d transactions, %d appends (durability NONE)%n", userCount,
+                    transactionsPerUser, appends);
+            System.out.printf("%-16s %12s %12s %14s%n", "backend", "save ms", "load ms", "appends/sec");
+
+            run("TextFileStorage", new TextFileStorage(), userCount, transactionsPerUser, appends);
+            run("JournalStorage", new JournalStorage(journalDir.toString()), userCount, transactionsPerUser, appends);
+            run("InMemoryStorage", new InMemoryStorage(), userCount, transactionsPerUser, appends);
+        } finally {
+            FileManager.setDataDirectory(originalDir);
+            FileManager.setDurabilityMode(originalMode);
+            deleteDirectory(textDir.toFile());
+            deleteDirectory(journalDir.toFile());
+        }
+    }
+
+    private static void run(String label, StorageBackend storage, int userCount, int transactionsPerUser,
+            int appends) {
+        List<User> users = new ArrayList<>();
+        for (int u = 0; u < userCount; u++) {
+            User user = new User("bench" + u, "password");
+            for (int t = 0; t < transactionsPerUser; t++) {
+                user.addTransaction(new Expense("Item " + t, 10 + t % 50, "Category" + (t % 7),
+                        LocalDate.of(2024, 1, 1).plusDays(t % 365)));
+            }
+            users.add(user);
+        }
+        storage.saveAll(users); // Warm-up
+
+        long start = System.nanoTime();
+        storage.saveAll(users);
+        double saveMillis = (System.nanoTime() - start) / 1e6;
+
+        start = System.nanoTime();
+        for (User user : users) {
+            storage.load(user.getUsername());
+        }
+        double loadMillis = (System.nanoTime() - start) / 1e6;
+
+        User target = users.get(0);
+        start = System.nanoTime();
+        for (int i = 0; i < appends; i++) {
+            Transaction transaction = new Income("Pay " + i, 100, "Salary", LocalDate.of(2024, 6, 1));
+            target.addTransaction(transaction);
+            storage.appendTransaction(target.getUsername(), transaction);
+        }
+        double appendSeconds = (System.nanoTime() - start) / 1e9;
+
+        User reloaded = storage.load(target.getUsername());
+        if (reloaded == null || reloaded.getTransactions().size() != target.getTransactions().size()) {
+            System.err.println(label + ": reloaded user does not match saved data");
+        }
+        System.out.printf("%-16s %12.2f %12.2f %14.1f%n", label, saveMillis, loadMillis, appends / appendSeconds);
+    }
+
+    private static void deleteDirectory(File dir) {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.isDirectory()) {
+                    deleteDirectory(file);
+                } else {
+                    file.delete();
+                }
+            }
+        }
+        dir.delete();
+    }
+}
@@ -0,0 +1,43 @@
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The default backend: human-readable text files managed by FileManager.
+ */
+public class TextFileStorage implements StorageBackend {
+
+    @Override
+    public User load(String username) {
+        return FileManager.loadUser(username);
+    }
+
+    @Override
+    public boolean save(User user) {
+        return FileManager.saveUser(user);
+    }
+
+    @Override
+    public int saveAll(Collection<User> users) {
+        return FileManager.saveUsers(users);
+    }
+
+    @Override
+    public boolean exists(String username) {
+        return FileManager.userExists(username);
+    }
+
+    @Override
+    public boolean appendTransaction(String username, Transaction transaction) {
+        return FileManager.appendTransaction(username, transaction);
+    }
+
+    @Override
+    public boolean appendRemoval(String username, long transactionId) {
+        return FileManager.appendRemoval(username, transactionId);
+    }
+
+    @Override
+    public List<String> listUsers() {
+        return FileManager.listUsers();
+    }
+}
@@ -1,4 +1,6 @@
 import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
 import javax.swing.*;
 import javax.swing.border.*;
 
@@ -7,6 +9,10 @@ import javax.swing.border.*;
  * Uses deep navy/black backgrounds with vibrant emerald accents.
  */
 public class Theme {
+    // Shared registries so paint code never allocates fonts or colors per frame
+    private static final Map<String, Font> FONT_REGISTRY = new HashMap<>();
+    private static final Map<Long, Color> COLOR_REGISTRY = new HashMap<>();
+
     // === COLOR PALETTE: "Midnight Ledger" ===
 
     // Primary Accents (Emerald Green - Vibrant & Expensive)
@@ -19,6 +25,7 @@ public class Theme {
     public static final Color BACKGROUND_LIGHT = new Color(17, 24, 39); // Gray-900 equivalent
     public static final Color SURFACE = new Color(31, 41, 55); // Gray-800 equivalent (Cards)
     public static final Color SURFACE_HIGHLIGHT = new Color(55, 65, 81);// Gray-700 (Hover/Input)
+    public static final Color SURFACE_HOVER = new Color(75, 85, 99); // Gray-600 (Secondary button hover)
 
     // Text (High Contrast)
     public static final Color TEXT_PRIMARY = new Color(249, 250, 251); // Gray-50
@@ -42,6 +49,10 @@ public class Theme {
     public static final Font FONT_SMALL = new Font("Segoe UI", Font.PLAIN, 12);
     public static final Font FONT_BUTTON = new Font("Segoe UI", Font.BOLD, 14);
 
+    // Icon fonts (emoji glyphs)
+    public static final Font FONT_ICON_SMALL = font("Segoe UI Emoji", Font.PLAIN, 18);
+    public static final Font FONT_ICON = font("Segoe UI Emoji", Font.PLAIN, 24);
+
     // Geometry
     public static final int PADDING_SMALL = 10;
     public static final int PADDING_MEDIUM = 20;
@@ -60,7 +71,7 @@ public class Theme {
      */
     public static JButton createButton(String text, boolean isPrimary) {
         Color bg = isPrimary ? PRIMARY : SURFACE_HIGHLIGHT;
-        Color hover = isPrimary ? PRIMARY_DARK : new Color(75, 85, 99);
+        Color hover = isPrimary ? PRIMARY_DARK : SURFACE_HOVER;
         Color fg = isPrimary ? Color.WHITE : TEXT_PRIMARY;
 
         RoundedButton button = new RoundedButton(text, bg, hover, RADIUS_SMALL);
@@ -82,4 +93,39 @@ public class Theme {
 
         // Custom painting for border could be added here or via wrapper
     }
+
+    /**
+     * Returns a shared font instance, creating it on first use.
+     *
+     * @param family The font family name.
+     * @param style  The font style (e.g. Font.PLAIN).
+     * @param size   The point size.
+     * @return The cached Font.
+     */
+    public static synchronized Font font(String family, int style, int size) {
+        String key = family + "|" + style + "|" + size;
+        Font font = FONT_REGISTRY.get(key);
+        if (font == null) {
+            font = new Font(family, style, size);
+            FONT_REGISTRY.put(key, font);
+        }
+        return font;
+    }
+
+    /**
+     * Returns a shared translucent variant of a color, creating it on first use.
+     *
+     * @param base  The base color.
+     * @param alpha The alpha value (0-255).
+     * @return The cached Color.
+     */
+    public static synchronized Color withAlpha(Color base, int alpha) {
+        long key = ((long) (base.getRGB() & 0xFFFFFF) << 8) | (alpha & 0xFF);
+        Color color = COLOR_REGISTRY.get(key);
+        if (color == null) {
+            color = new Color(base.getRed(), base.getGreen(), base.getBlue(), alpha);
+            COLOR_REGISTRY.put(key, color);
+        }
+        return color;
+    }
 }
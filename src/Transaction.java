@@ -4,8 +4,11 @@ import java.time.format.DateTimeFormatter;
 /**
  * Abstract base class representing a financial transaction.
  * Common properties include name, amount, and date.
+ * Each transaction also has an id, unique within its user, that is assigned
+ * when it is first added to a User and persisted with it.
  */
 public abstract class Transaction {
+    protected long id;
     protected String name;
     protected double amount;
     protected LocalDate date;
@@ -16,6 +19,19 @@ public abstract class Transaction {
         this.date = date;
     }
 
+    /**
+     * Returns the stable id of this transaction.
+     * 
+     * @return The id, or 0 if it has not been added to a user yet.
+     */
+    public long getId() {
+        return id;
+    }
+
+    void setId(long id) {
+        this.id = id;
+    }
+
     public String getName() {
         return name;
     }
@@ -63,16 +79,28 @@ public abstract class Transaction {
 
     /**
      * Formats the transaction for file storage.
-     * Use a pipe (|) delimiter.
+     * Use a pipe (|) delimiter. The id is the last field.
      * 
      * @return A string suitable for saving to a file.
      */
     public String formatForFile() {
-        return String.format("%s|%s|%.2f|%s|%s",
+        return String.format("%s|%s|%.2f|%s|%s|%d",
                 getType(),
                 name,
                 amount,
                 getCategoryOrSource(),
-                date.toString());
+                date.toString(),
+                id);
+    }
+
+    /**
+     * Reads the optional id field written by formatForFile.
+     * Files saved before ids existed have only five fields.
+     * 
+     * @param parts The split file line.
+     * @return The id, or 0 if absent.
+     */
+    protected static long parseId(String[] parts) {
+        return parts.length >= 6 ? Long.parseLong(parts[5]) : 0;
     }
 }
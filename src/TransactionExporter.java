@@ -0,0 +1,361 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streams transactions and report summaries to a channel as CSV or JSON.
+ * Rows are encoded straight into one reusable char buffer and one reusable
+ * byte buffer that are flushed to the channel whenever they fill, so the
+ * output is never built up in memory and large histories export in constant
+ * space. Safe to run off the EDT; rows are read from the user's snapshot.
+ */
+public class TransactionExporter {
+    private static final int BUFFER_CHARS = 32 * 1024;
+    private static final int PROGRESS_INTERVAL = 10000;
+
+    /**
+     * Output file format.
+     */
+    public enum Format {
+        CSV, JSON
+    }
+
+    /**
+     * What to export.
+     */
+    public enum Report {
+        TRANSACTIONS("Transactions"),
+        MONTHLY_SUMMARY("Monthly Summary"),
+        CATEGORY_BREAKDOWN("Category Breakdown");
+
+        private final String label;
+
+        Report(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * Receives the number of rows written so far.
+     */
+    public interface ProgressListener {
+        void progress(long rowsWritten, long totalRows);
+    }
+
+    private final WritableByteChannel channel;
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_CHARS);
+    private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_CHARS * 3);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    private long bytesWritten;
+
+    /**
+     * Creates an exporter writing to a channel. The caller closes the channel.
+     *
+     * @param channel The destination.
+     */
+    public TransactionExporter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Stops an export in progress after the current row.
+     */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    /**
+     * Returns the number of bytes written to the channel so far.
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Writes one report for a user. Summaries include recurring
+     * occurrences, matching the reports screen.
+     *
+     * @param report   What to export.
+     * @param format   CSV or JSON.
+     * @param user     The user whose data to export.
+     * @param month    The current month; monthly totals run through it.
+     * @param today    Today's date; category totals count recurring expenses up to it.
+     * @param listener Receives progress for transaction exports; may be null.
+     * @return The number of rows written.
+     * @throws IOException if writing to the channel fails.
+     */
+    public long export(Report report, Format format, User user, YearMonth month, LocalDate today,
+            ProgressListener listener) throws IOException {
+        switch (report) {
+            case MONTHLY_SUMMARY:
+                return writeMonthlySummary(format, MonthlyReportManager.getMonthlyTotals(user, month));
+            case CATEGORY_BREAKDOWN:
+                return writeCategoryBreakdown(format, CategoryReportManager.getCategoryBreakdown(user, today));
+            default:
+                return writeTransactions(format, user.getTransactions(), listener);
+        }
+    }
+
+    /**
+     * Streams transactions one row at a time.
+     *
+     * @param format       CSV or JSON.
+     * @param transactions The transactions to write.
+     * @param listener     Receives progress; may be null.
+     * @return The number of rows written.
+     * @throws IOException if writing to the channel fails.
+     */
+    public long writeTransactions(Format format, List<Transaction> transactions, ProgressListener listener)
+            throws IOException {
+        long rows = 0;
+        if (format == Format.CSV) {
+            append("id,type,date,name,amount,category\n");
+        } else {
+            append("[");
+        }
+        for (Transaction t : transactions) {
+            if (cancelled.get()) {
+                break;
+            }
+            if (format == Format.CSV) {
+                appendLong(t.getId()).append(',').append(t.getType()).append(',').append(t.getDate().toString())
+                        .append(',').appendCsv(t.getName()).append(',').appendCents(Math.round(t.getAmount() * 100))
+                        .append(',').appendCsv(t.getCategoryOrSource()).append('\n');
+            } else {
+                append(rows == 0 ? "\n  {\"id\":" : ",\n  {\"id\":").appendLong(t.getId())
+                        .append(",\"type\":").appendJson(t.getType())
+                        .append(",\"date\":").appendJson(t.getDate().toString())
+                        .append(",\"name\":").appendJson(t.getName())
+                        .append(",\"amount\":").appendCents(Math.round(t.getAmount() * 100))
+                        .append(",\"category\":").appendJson(t.getCategoryOrSource()).append('}');
+            }
+            rows++;
+            if (listener != null && rows % PROGRESS_INTERVAL == 0) {
+                listener.progress(rows, transactions.size());
+            }
+        }
+        if (format == Format.JSON) {
+            append(rows == 0 ? "]\n" : "\n]\n");
+        }
+        flush();
+        if (listener != null) {
+            listener.progress(rows, transactions.size());
+        }
+        return rows;
+    }
+
+    /**
+     * Writes income, expenses and net per month.
+     *
+     * @param format  CSV or JSON.
+     * @param monthly Totals from MonthlyReportManager.getMonthlyTotals.
+     * @return The number of rows written.
+     * @throws IOException if writing to the channel fails.
+     */
+    public long writeMonthlySummary(Format format, SortedMap<YearMonth, double[]> monthly) throws IOException {
+        long rows = 0;
+        append(format == Format.CSV ? "month,income,expenses,net\n" : "[");
+        for (Map.Entry<YearMonth, double[]> entry : monthly.entrySet()) {
+            long income = Math.round(entry.getValue()[0] * 100);
+            long expenses = Math.round(entry.getValue()[1] * 100);
+            if (format == Format.CSV) {
+                append(entry.getKey().toString()).append(',').appendCents(income).append(',').appendCents(expenses)
+                        .append(',').appendCents(income - expenses).append('\n');
+            } else {
+                append(rows == 0 ? "\n  {\"month\":" : ",\n  {\"month\":").appendJson(entry.getKey().toString())
+                        .append(",\"income\":").appendCents(income)
+                        .append(",\"expenses\":").appendCents(expenses)
+                        .append(",\"net\":").appendCents(income - expenses).append('}');
+            }
+            rows++;
+        }
+        if (format == Format.JSON) {
+            append(rows == 0 ? "]\n" : "\n]\n");
+        }
+        flush();
+        return rows;
+    }
+
+    /**
+     * Writes total expenses per category, largest first.
+     *
+     * @param format     CSV or JSON.
+     * @param categories Totals from CategoryReportManager.getCategoryBreakdown.
+     * @return The number of rows written.
+     * @throws IOException if writing to the channel fails.
+     */
+    public long writeCategoryBreakdown(Format format, Map<String, Double> categories) throws IOException {
+        List<Map.Entry<String, Double>> sorted = new ArrayList<>(categories.entrySet());
+        sorted.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+        long rows = 0;
+        append(format == Format.CSV ? "category,total\n" : "[");
+        for (Map.Entry<String, Double> entry : sorted) {
+            long total = Math.round(entry.getValue() * 100);
+            if (format == Format.CSV) {
+                appendCsv(entry.getKey()).append(',').appendCents(total).append('\n');
+            } else {
+                append(rows == 0 ? "\n  {\"category\":" : ",\n  {\"category\":").appendJson(entry.getKey())
+                        .append(",\"total\":").appendCents(total).append('}');
+            }
+            rows++;
+        }
+        if (format == Format.JSON) {
+            append(rows == 0 ? "]\n" : "\n]\n");
+        }
+        flush();
+        return rows;
+    }
+
+    private TransactionExporter append(char c) throws IOException {
+        if (!chars.hasRemaining()) {
+            drain();
+        }
+        chars.put(c);
+        return this;
+    }
+
+    private TransactionExporter append(String text) throws IOException {
+        int offset = 0;
+        while (offset < text.length()) {
+            if (!chars.hasRemaining()) {
+                drain();
+            }
+            int n = Math.min(chars.remaining(), text.length() - offset);
+            chars.put(text, offset, offset + n);
+            offset += n;
+        }
+        return this;
+    }
+
+    private TransactionExporter appendLong(long value) throws IOException {
+        if (value < 0) {
+            append('-');
+            value = -value;
+        }
+        if (value >= 10) {
+            appendLong(value / 10);
+        }
+        return append((char) ('0' + value % 10));
+    }
+
+    /**
+     * Writes an amount in cents as a decimal with two places, avoiding
+     * String.format for every row.
+     */
+    private TransactionExporter appendCents(long cents) throws IOException {
+        if (cents < 0) {
+            append('-');
+            cents = -cents;
+        }
+        appendLong(cents / 100).append('.');
+        long fraction = cents % 100;
+        return append((char) ('0' + fraction / 10)).append((char) ('0' + fraction % 10));
+    }
+
+    private TransactionExporter appendCsv(String value) throws IOException {
+        String text = value == null ? "" : value;
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            return append(text);
+        }
+        append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                append('"');
+            }
+            append(c);
+        }
+        return append('"');
+    }
+
+    private TransactionExporter appendJson(String value) throws IOException {
+        if (value == null) {
+            return append("null");
+        }
+        append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    append("\\\"");
+                    break;
+                case '\\':
+                    append("\\\\");
+                    break;
+                case '\n':
+                    append("\\n");
+                    break;
+                case '\r':
+                    append("\\r");
+                    break;
+                case '\t':
+                    append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 15, 16));
+                    } else {
+                        append(c);
+                    }
+            }
+        }
+        return append('"');
+    }
+
+    /**
+     * Encodes buffered characters and writes them to the channel. A trailing
+     * high surrogate stays in the buffer until its pair arrives.
+     */
+    private void drain() throws IOException {
+        chars.flip();
+        CoderResult result = encoder.encode(chars, bytes, false);
+        if (result.isError()) {
+            result.throwException();
+        }
+        writeBytes();
+        chars.compact();
+    }
+
+    private void flush() throws IOException {
+        chars.flip();
+        encoder.encode(chars, bytes, true);
+        encoder.flush(bytes);
+        writeBytes();
+        chars.clear();
+        encoder.reset();
+    }
+
+    private void writeBytes() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            bytesWritten += channel.write(bytes);
+        }
+        bytes.clear();
+    }
+}
@@ -0,0 +1,94 @@
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Immutable set of search criteria for the transaction history.
+ * Empty criteria (null or blank) match every transaction.
+ */
+public class TransactionFilter {
+    private final String text;
+    private final String type;
+    private final String category;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+
+    /**
+     * Creates a new filter.
+     *
+     * @param text      Case-insensitive text to find in the name or category/source.
+     * @param type      "Income" or "Expense"; null or "All" for both.
+     * @param category  Case-insensitive category/source prefix.
+     * @param startDate The earliest date (inclusive), or null.
+     * @param endDate   The latest date (inclusive), or null.
+     */
+    public TransactionFilter(String text, String type, String category, LocalDate startDate, LocalDate endDate) {
+        this.text = normalize(text);
+        this.type = type == null || type.equalsIgnoreCase("All") ? null : type;
+        this.category = normalize(category);
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    private static String normalize(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    /**
+     * Checks whether no criteria are set.
+     *
+     * @return true if the filter matches everything.
+     */
+    public boolean isEmpty() {
+        return text == null && type == null && category == null && startDate == null && endDate == null;
+    }
+
+    /**
+     * Tests a transaction against all criteria.
+     *
+     * @param t The transaction to test.
+     * @return true if the transaction satisfies every criterion.
+     */
+    public boolean matches(Transaction t) {
+        if (type != null && !t.getType().equalsIgnoreCase(type)) {
+            return false;
+        }
+        if (startDate != null && t.getDate().isBefore(startDate)) {
+            return false;
+        }
+        if (endDate != null && t.getDate().isAfter(endDate)) {
+            return false;
+        }
+        String catSrc = t.getCategoryOrSource() == null ? "" : t.getCategoryOrSource().toLowerCase(Locale.ROOT);
+        if (category != null && !catSrc.startsWith(category)) {
+            return false;
+        }
+        if (text != null) {
+            String name = t.getName() == null ? "" : t.getName().toLowerCase(Locale.ROOT);
+            return name.contains(text) || catSrc.contains(text);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,139 @@
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Runs transaction history searches on a background thread.
+ * Requests are debounced, a newer query cancels the one in flight, and
+ * the whole query, index lookup included, runs through
+ * FinanceManager.searchTransactions off the EDT. Matches are streamed to
+ * the view in small batches.
+ */
+public class TransactionSearch {
+    private static final int DEBOUNCE_MS = 250;
+    private static final int BATCH_SIZE = 50;
+
+    /**
+     * Receives search results on the Event Dispatch Thread.
+     */
+    public interface ResultListener {
+        /** Called before the first batch of a new query. */
+        void searchStarted();
+
+        /** Called with each batch of matching transactions, newest first. */
+        void resultsFound(List<Transaction> batch);
+
+        /**
+         * Called once the query has finished.
+         *
+         * @param matchCount The number of matches delivered.
+         * @param truncated  True if the result limit was reached.
+         */
+        void searchFinished(int matchCount, boolean truncated);
+    }
+
+    private final Supplier<User> source;
+    private final Supplier<TransactionFilter> criteria;
+    private final ResultListener listener;
+    private final int maxResults;
+    private final Timer debounceTimer;
+    private SearchWorker currentWorker;
+
+    /**
+     * Creates a search controller.
+     *
+     * @param source     Supplies the user to search (called on the EDT).
+     * @param criteria   Supplies the current filter, or null if the criteria
+     *                   are invalid and nothing should run (called on the EDT).
+     * @param listener   Receives results.
+     * @param maxResults The maximum number of matches to deliver for a query
+     *                   with criteria; an empty filter lists everything.
+     */
+    public TransactionSearch(Supplier<User> source, Supplier<TransactionFilter> criteria,
+            ResultListener listener, int maxResults) {
+        this.source = source;
+        this.criteria = criteria;
+        this.listener = listener;
+        this.maxResults = maxResults;
+        this.debounceTimer = new Timer(DEBOUNCE_MS, e -> searchNow());
+        this.debounceTimer.setRepeats(false);
+    }
+
+    /**
+     * Schedules a search after the debounce delay; repeated calls within the
+     * delay collapse into one query.
+     */
+    public void requestSearch() {
+        debounceTimer.restart();
+    }
+
+    /**
+     * Cancels any pending or running query and starts a new one immediately.
+     */
+    public void searchNow() {
+        debounceTimer.stop();
+        if (currentWorker != null) {
+            currentWorker.cancel(true);
+        }
+        User user = source.get();
+        TransactionFilter filter = user == null ? null : criteria.get();
+        if (filter == null) {
+            currentWorker = null;
+            return;
+        }
+        listener.searchStarted();
+        currentWorker = new SearchWorker(user, filter);
+        currentWorker.execute();
+    }
+
+    private class SearchWorker extends SwingWorker<Integer, Transaction> {
+        private final User user;
+        private final TransactionFilter filter;
+        private boolean truncated;
+
+        SearchWorker(User user, TransactionFilter filter) {
+            this.user = user;
+            this.filter = filter;
+        }
+
+        @Override
+        protected Integer doInBackground() {
+            List<Transaction> found = new ArrayList<>(FinanceManager.searchTransactions(user, filter));
+            if (isCancelled()) {
+                return 0;
+            }
+            found.sort(Comparator.comparing(Transaction::getDate).reversed());
+            int limit = filter.isEmpty() ? found.size() : Math.min(found.size(), maxResults);
+            truncated = found.size() > limit;
+            for (int from = 0; from < limit; from += BATCH_SIZE) {
+                if (isCancelled()) {
+                    return from;
+                }
+                publish(found.subList(from, Math.min(limit, from + BATCH_SIZE)).toArray(new Transaction[0]));
+            }
+            return limit;
+        }
+
+        @Override
+        protected void process(List<Transaction> chunks) {
+            // Batches from a superseded query may still be queued on the EDT
+            if (this == currentWorker && !isCancelled()) {
+                listener.resultsFound(chunks);
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (this != currentWorker || isCancelled()) {
+                return;
+            }
+            try {
+                listener.searchFinished(get(), truncated);
+            } catch (Exception e) {
+                System.err.println("Error searching transactions: " + e.getMessage());
+            }
+        }
+    }
+}
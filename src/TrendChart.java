@@ -0,0 +1,146 @@
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+import java.util.function.DoubleFunction;
+
+/**
+ * A line chart for one or more series sharing an X axis (e.g. monthly income
+ * and expenses, or the daily balance).
+ * Long series are downsampled with LTTB to the plot width before drawing.
+ */
+public class TrendChart extends ChartPanel {
+    private static final int MARGIN_LEFT = 80;
+    private static final int MARGIN_RIGHT = 20;
+    private static final int MARGIN_TOP = 30;
+    private static final int MARGIN_BOTTOM = 30;
+    private static final int GRID_LINES = 4;
+
+    private double[] xs = new double[0];
+    private double[][] series = new double[0][];
+    private String[] names = new String[0];
+    private Color[] colors = new Color[0];
+    private DoubleFunction<String> xLabelFormat = x -> String.valueOf((long) x);
+
+    /**
+     * Creates an empty trend chart.
+     *
+     * @param height The preferred height in pixels.
+     */
+    public TrendChart(int height) {
+        super(height);
+    }
+
+    /**
+     * Sets how X values are printed on the axis.
+     *
+     * @param xLabelFormat Converts an X value to its label.
+     */
+    public void setXLabelFormat(DoubleFunction<String> xLabelFormat) {
+        this.xLabelFormat = xLabelFormat;
+        invalidateChart();
+    }
+
+    /**
+     * Replaces the chart data. The cached image is kept if nothing changed.
+     *
+     * @param xs     X values, sorted ascending.
+     * @param names  Series names for the legend.
+     * @param series Y values per series, each the same length as xs.
+     * @param colors Line color per series.
+     */
+    public void setData(double[] xs, String[] names, double[][] series, Color[] colors) {
+        if (Arrays.equals(this.xs, xs) && Arrays.deepEquals(this.series, series)
+                && Arrays.equals(this.names, names) && Arrays.equals(this.colors, colors)) {
+            return;
+        }
+        this.xs = xs;
+        this.names = names;
+        this.series = series;
+        this.colors = colors;
+        invalidateChart();
+    }
+
+    @Override
+    protected void renderChart(Graphics2D g2, int width, int height) {
+        if (xs.length == 0) {
+            drawEmptyMessage(g2, "No data to display.", width, height);
+            return;
+        }
+
+        int plotW = Math.max(1, width - MARGIN_LEFT - MARGIN_RIGHT);
+        int plotH = Math.max(1, height - MARGIN_TOP - MARGIN_BOTTOM);
+
+        double minX = xs[0];
+        double maxX = xs[xs.length - 1];
+        double minY = 0;
+        double maxY = 0;
+        for (double[] ys : series) {
+            for (double y : ys) {
+                minY = Math.min(minY, y);
+                maxY = Math.max(maxY, y);
+            }
+        }
+        if (maxY == minY) {
+            maxY = minY + 1;
+        }
+        double spanX = maxX > minX ? maxX - minX : 1;
+        double spanY = maxY - minY;
+
+        // Grid and Y labels
+        g2.setFont(Theme.FONT_SMALL);
+        FontMetrics fm = g2.getFontMetrics();
+        g2.setStroke(new BasicStroke(1f));
+        for (int i = 0; i <= GRID_LINES; i++) {
+            double value = minY + spanY * i / GRID_LINES;
+            int y = MARGIN_TOP + plotH - (int) Math.round(plotH * (double) i / GRID_LINES);
+            g2.setColor(Theme.SURFACE_HIGHLIGHT);
+            g2.drawLine(MARGIN_LEFT, y, MARGIN_LEFT + plotW, y);
+            String label = FinanceManager.formatCurrency(value);
+            g2.setColor(Theme.TEXT_SECONDARY);
+            g2.drawString(label, MARGIN_LEFT - 8 - fm.stringWidth(label), y + fm.getAscent() / 2 - 1);
+        }
+
+        // X labels (first and last)
+        String first = xLabelFormat.apply(minX);
+        String last = xLabelFormat.apply(maxX);
+        int labelY = MARGIN_TOP + plotH + fm.getAscent() + 8;
+        g2.drawString(first, MARGIN_LEFT, labelY);
+        if (maxX > minX) {
+            g2.drawString(last, MARGIN_LEFT + plotW - fm.stringWidth(last), labelY);
+        }
+
+        // Series, downsampled to one point per pixel column
+        g2.setStroke(new BasicStroke(2f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+        int legendX = MARGIN_LEFT;
+        for (int s = 0; s < series.length; s++) {
+            double[] ys = series[s];
+            int[] keep = SeriesDownsampler.lttb(xs, ys, plotW);
+            Path2D.Double path = new Path2D.Double(Path2D.WIND_NON_ZERO, keep.length);
+            for (int k = 0; k < keep.length; k++) {
+                int idx = keep[k];
+                double px = MARGIN_LEFT + (xs[idx] - minX) / spanX * plotW;
+                double py = MARGIN_TOP + plotH - (ys[idx] - minY) / spanY * plotH;
+                if (k == 0) {
+                    path.moveTo(px, py);
+                } else {
+                    path.lineTo(px, py);
+                }
+            }
+            g2.setColor(colors[s]);
+            g2.draw(path);
+            if (keep.length == 1) {
+                // A single point has no line segment; mark it with a dot
+                Point2D p = path.getCurrentPoint();
+                g2.fill(new Ellipse2D.Double(p.getX() - 3, p.getY() - 3, 6, 6));
+            }
+
+            // Legend entry
+            g2.fillRoundRect(legendX, 8, 12, 12, 4, 4);
+            g2.setColor(Theme.TEXT_PRIMARY);
+            g2.drawString(names[s], legendX + 18, 8 + fm.getAscent() - 1);
+            legendX += 18 + fm.stringWidth(names[s]) + 24;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Inverted trigram index over transaction names and categories/sources.
+ * Each transaction gets an internal document number; every trigram maps to
+ * a sorted posting list of document numbers stored in a compact int array.
+ * Substring and prefix queries intersect posting lists and only verify the
+ * few remaining candidates instead of scanning the whole history.
+ * Removal is O(1): the document is tombstoned and the index is rebuilt
+ * once tombstones outnumber live documents.
+ * Not thread-safe for changes; callers synchronize through the owning
+ * User. Searches only read, so background history queries may run them
+ * concurrently under the User's read lock.
+ */
+public class TrigramIndex {
+    // Field delimiters so prefix queries can match the start of a field
+    private static final char FIELD_START = '\u0002';
+    private static final char FIELD_END = '\u0003';
+
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final Map<Transaction, Integer> docIds = new IdentityHashMap<>();
+    private final List<Transaction> docs = new ArrayList<>();
+    private final List<String> docTexts = new ArrayList<>();
+    private int removedCount;
+
+    /**
+     * Adds a transaction to the index.
+     *
+     * @param transaction The transaction to index.
+     */
+    public void add(Transaction transaction) {
+        if (docIds.containsKey(transaction)) {
+            return;
+        }
+        int docId = docs.size();
+        String text = indexText(transaction);
+        docs.add(transaction);
+        docTexts.add(text);
+        docIds.put(transaction, docId);
+
+        for (int i = 0; i + 2 < text.length(); i++) {
+            // Doc ids only grow, so appending keeps each posting list sorted
+            postings.computeIfAbsent(key(text, i), k -> new PostingList()).addLast(docId);
+        }
+    }
+
+    /**
+     * Removes a transaction from the index.
+     *
+     * @param transaction The transaction to remove.
+     */
+    public void remove(Transaction transaction) {
+        Integer docId = docIds.remove(transaction);
+        if (docId == null) {
+            return;
+        }
+        // Tombstone only; stale posting entries are skipped when verifying
+        // candidates and dropped when the index is compacted
+        docs.set(docId, null);
+        docTexts.set(docId, null);
+        removedCount++;
+
+        if (removedCount > 1024 && removedCount > docIds.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        postings.clear();
+        docIds.clear();
+        docs.clear();
+        docTexts.clear();
+        removedCount = 0;
+    }
+
+    /**
+     * Returns the number of indexed transactions.
+     */
+    public int size() {
+        return docIds.size();
+    }
+
+    /**
+     * Finds transactions whose name or category/source contains the query.
+     *
+     * @param query Case-insensitive text to find.
+     * @return Matching transactions in insertion order.
+     */
+    public List<Transaction> search(String query) {
+        String q = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (q.isEmpty()) {
+            return liveDocs();
+        }
+        return find(q, q);
+    }
+
+    /**
+     * Finds transactions whose name or category/source starts with the query.
+     *
+     * @param prefix Case-insensitive prefix.
+     * @return Matching transactions in insertion order.
+     */
+    public List<Transaction> searchPrefix(String prefix) {
+        String q = prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+        if (q.isEmpty()) {
+            return liveDocs();
+        }
+        return find(FIELD_START + q, FIELD_START + q);
+    }
+
+    private List<Transaction> find(String pattern, String verify) {
+        int[] candidates;
+        if (pattern.length() >= 3) {
+            candidates = intersect(pattern);
+        } else {
+            candidates = unionByLeadingChars(pattern);
+        }
+
+        List<Transaction> results = new ArrayList<>();
+        for (int docId : candidates) {
+            String text = docTexts.get(docId);
+            if (text != null && text.contains(verify)) {
+                results.add(docs.get(docId));
+            }
+        }
+        return results;
+    }
+
+    private int[] intersect(String pattern) {
+        int count = pattern.length() - 2;
+        PostingList[] lists = new PostingList[count];
+        for (int i = 0; i < count; i++) {
+            PostingList list = postings.get(key(pattern, i));
+            if (list == null) {
+                return new int[0];
+            }
+            lists[i] = list;
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        int[] result = Arrays.copyOf(lists[0].ids, lists[0].size);
+        int resultSize = result.length;
+        for (int l = 1; l < lists.length && resultSize > 0; l++) {
+            PostingList other = lists[l];
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < resultSize; i++) {
+                int pos = Arrays.binarySearch(other.ids, from, other.size, result[i]);
+                if (pos >= 0) {
+                    result[kept++] = result[i];
+                    from = pos + 1;
+                } else {
+                    from = -pos - 1;
+                }
+            }
+            resultSize = kept;
+        }
+        return Arrays.copyOf(result, resultSize);
+    }
+
+    private int[] unionByLeadingChars(String pattern) {
+        // Every occurrence is followed by at least two more characters (field
+        // delimiters), so it starts some trigram beginning with the pattern
+        boolean[] seen = new boolean[docs.size()];
+        int count = 0;
+        for (Map.Entry<Long, PostingList> entry : postings.entrySet()) {
+            long k = entry.getKey();
+            char c0 = (char) (k >>> 32);
+            char c1 = (char) (k >>> 16);
+            if (c0 != pattern.charAt(0) || (pattern.length() > 1 && c1 != pattern.charAt(1))) {
+                continue;
+            }
+            PostingList list = entry.getValue();
+            for (int i = 0; i < list.size; i++) {
+                if (!seen[list.ids[i]]) {
+                    seen[list.ids[i]] = true;
+                    count++;
+                }
+            }
+        }
+        int[] result = new int[count];
+        int n = 0;
+        for (int i = 0; i < seen.length; i++) {
+            if (seen[i]) {
+                result[n++] = i;
+            }
+        }
+        return result;
+    }
+
+    private List<Transaction> liveDocs() {
+        List<Transaction> results = new ArrayList<>(docIds.size());
+        for (Transaction t : docs) {
+            if (t != null) {
+                results.add(t);
+            }
+        }
+        return results;
+    }
+
+    private void compact() {
+        List<Transaction> live = liveDocs();
+        clear();
+        for (Transaction t : live) {
+            add(t);
+        }
+    }
+
+    private static String indexText(Transaction t) {
+        String name = t.getName() == null ? "" : t.getName().toLowerCase(Locale.ROOT);
+        String catSrc = t.getCategoryOrSource() == null ? "" : t.getCategoryOrSource().toLowerCase(Locale.ROOT);
+        // Trailing delimiter pair guarantees a trigram starts at every real character
+        return FIELD_START + name + FIELD_END + FIELD_START + catSrc + FIELD_END + FIELD_END;
+    }
+
+    private static long key(String text, int i) {
+        return ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+    }
+
+    /**
+     * Sorted, growable array of document numbers.
+     */
+    private static final class PostingList {
+        private int[] ids = new int[4];
+        private int size;
+
+        void addLast(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return; // Trigram repeated within the same document
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+}
@@ -1,19 +1,58 @@
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.StampedLock;
 
 /**
  * Represents a user of the application.
  * Stores personal information, financial goals, and a history of transactions.
+ * Safe to share between threads: changes take a write lock, and readers get
+ * an immutable snapshot of the transactions that is reused until the next
+ * change, so reports and savers never block edits for long.
  */
 public class User {
+    // Removed slots are compacted away once they outnumber live transactions
+    private static final int MIN_COMPACT_SLOTS = 64;
+
     private String username;
     private String password;
-    private List<Transaction> transactions;
-    private double monthlyBudget;
-    private double savingsGoal;
-    private LocalDate savingsTargetDate;
-    private int savingsTargetMonths;
+    private final ArrayList<Transaction> transactions;
+    private volatile List<Transaction> snapshot;
+    private final Map<Long, Integer> slots;
+    private int removedSlots;
+    private long lastId;
+    private long incomeCents;
+    private long expenseCents;
+    private final Map<YearMonth, long[]> monthCents;
+    private final Map<YearMonth, Map<String, long[]>> categoryMonthCents;
+    private final Map<String, Double> categoryBudgets;
+    private final Map<YearMonth, MonthSummary> sealedMonths;
+    private final SavingsProjection savingsTrend;
+    private volatile double monthlyBudget;
+    private volatile double savingsGoal;
+    private volatile LocalDate savingsTargetDate;
+    private volatile int savingsTargetMonths;
+    private final StampedLock lock;
+    private final TrigramIndex searchIndex;
+    private final DuplicateIndex duplicateIndex;
+    private final CompletionTrie categoryTrie;
+    private final CompletionTrie sourceTrie;
+    private final CategoryRuleEngine categoryRules;
+    private final List<RecurringTransaction> recurring;
+    private final List<UserChangeListener> listeners;
+    private volatile long version;
+    private volatile long savedVersion;
 
     /**
      * Creates a new User with the specified credentials.
@@ -25,10 +64,25 @@ public class User {
         this.username = username;
         this.password = password;
         this.transactions = new ArrayList<>();
+        this.snapshot = Collections.emptyList();
+        this.slots = new HashMap<>();
+        this.monthCents = new HashMap<>();
+        this.categoryMonthCents = new HashMap<>();
+        this.categoryBudgets = new LinkedHashMap<>();
+        this.sealedMonths = new HashMap<>();
+        this.savingsTrend = new SavingsProjection();
+        this.lock = new StampedLock();
         this.monthlyBudget = 0.0;
         this.savingsGoal = 0.0;
         this.savingsTargetDate = null;
         this.savingsTargetMonths = 0;
+        this.searchIndex = new TrigramIndex();
+        this.duplicateIndex = new DuplicateIndex();
+        this.categoryTrie = new CompletionTrie();
+        this.sourceTrie = new CompletionTrie();
+        this.categoryRules = CategoryRuleEngine.withSystemRules();
+        this.recurring = new CopyOnWriteArrayList<>();
+        this.listeners = new CopyOnWriteArrayList<>();
     }
 
     public String getUsername() {
@@ -45,40 +99,753 @@ public class User {
         return this.password.equals(password);
     }
 
+    /**
+     * Returns an immutable snapshot of the transactions. The same list is
+     * returned until the next change, and it is safe to iterate on any thread.
+     * 
+     * @return The current transactions in insertion order; an edited
+     *         transaction keeps its position.
+     */
     public List<Transaction> getTransactions() {
-        return transactions;
+        List<Transaction> current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        long stamp = lock.readLock();
+        try {
+            current = snapshot;
+            if (current == null) {
+                // Writers are excluded, so concurrent readers build equal copies
+                List<Transaction> live = new ArrayList<>(transactions.size() - removedSlots);
+                for (Transaction transaction : transactions) {
+                    if (transaction != null) {
+                        live.add(transaction);
+                    }
+                }
+                current = Collections.unmodifiableList(live);
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns a list of the transactions that is safe to read from other
+     * threads (e.g. the background saver) while the UI keeps editing.
+     * 
+     * @return An immutable snapshot of the current transactions.
+     */
+    public List<Transaction> getTransactionsSnapshot() {
+        return getTransactions();
     }
 
     /**
      * Adds a new transaction to the user's history.
+     * A transaction without an id is given the next free id. If its id is
+     * taken by a transaction with the same content (e.g. a replayed log
+     * record), it is already stored and is skipped; if the content differs,
+     * it gets a fresh id so nothing is lost.
      * 
      * @param transaction The transaction to add.
+     * @throws IllegalArgumentException if this object was already added.
      */
     public void addTransaction(Transaction transaction) {
-        transactions.add(transaction);
+        long stamp = lock.writeLock();
+        try {
+            if (!insert(transaction, true)) {
+                return;
+            }
+            transactionsChanged();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        fireChanged();
     }
 
+    /**
+     * Adds many transactions under one lock with a single change event, so
+     * listeners (and the auto-saver) react once for the whole batch.
+     * 
+     * @param batch The transactions to add.
+     * @return The number of transactions added.
+     * @throws IllegalArgumentException if an object in the batch was already
+     *                                  added; earlier rows stay added.
+     */
+    public int addTransactions(Collection<? extends Transaction> batch) {
+        int added = 0;
+        long stamp = lock.writeLock();
+        Map<String, Integer> categories = new HashMap<>();
+        Map<String, Integer> sources = new HashMap<>();
+        try {
+            transactions.ensureCapacity(transactions.size() + batch.size());
+            for (Transaction transaction : batch) {
+                if (insert(transaction, false)) {
+                    (transaction instanceof Income ? sources : categories)
+                            .merge(transaction.getCategoryOrSource(), 1, Integer::sum);
+                    added++;
+                }
+            }
+        } finally {
+            // Rows added before a rejected one stay, so keep the tries and snapshot in step
+            categories.forEach((term, count) -> categoryTrie.add(term, count));
+            sources.forEach((term, count) -> sourceTrie.add(term, count));
+            if (added > 0) {
+                transactionsChanged();
+            }
+            lock.unlockWrite(stamp);
+        }
+        if (added > 0) {
+            fireChanged();
+        }
+        return added;
+    }
+
+    /**
+     * Replaces the fields of an existing transaction, keeping its id. The
+     * search, duplicate and running totals are moved from the old values to
+     * the new ones, and earlier snapshots keep the old transaction.
+     * 
+     * @param id               The id of the transaction to edit.
+     * @param name             The new name.
+     * @param amount           The new amount.
+     * @param categoryOrSource The new category or source.
+     * @param date             The new date.
+     * @return true if the transaction was found and updated.
+     */
+    public boolean updateTransaction(long id, String name, double amount, String categoryOrSource,
+            LocalDate date) {
+        long stamp = lock.writeLock();
+        try {
+            Integer slot = slots.get(id);
+            if (slot == null) {
+                return false;
+            }
+            Transaction old = transactions.get(slot);
+            Transaction updated = old instanceof Income ? new Income(name, amount, categoryOrSource, date)
+                    : new Expense(name, amount, categoryOrSource, date);
+            updated.setId(id);
+
+            searchIndex.remove(old);
+            duplicateIndex.remove(old);
+            (old instanceof Income ? sourceTrie : categoryTrie).remove(old.getCategoryOrSource());
+            adjustTotals(old, -1);
+
+            transactions.set(slot, updated);
+            searchIndex.add(updated);
+            duplicateIndex.add(updated);
+            (updated instanceof Income ? sourceTrie : categoryTrie).add(updated.getCategoryOrSource());
+            adjustTotals(updated, 1);
+            transactionsChanged();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        fireChanged();
+        return true;
+    }
+
+    /**
+     * Removes many transactions by id under one lock with a single change event.
+     * 
+     * @param ids The ids of the transactions to remove.
+     * @return The number of transactions removed.
+     */
+    public int removeTransactionsById(Collection<Long> ids) {
+        int removed = 0;
+        long stamp = lock.writeLock();
+        try {
+            Map<String, Integer> categories = new HashMap<>();
+            Map<String, Integer> sources = new HashMap<>();
+            for (long id : ids) {
+                Integer slot = slots.get(id);
+                if (slot != null) {
+                    Transaction transaction = removeAt(slot, false);
+                    (transaction instanceof Income ? sources : categories)
+                            .merge(transaction.getCategoryOrSource(), -1, Integer::sum);
+                    removed++;
+                }
+            }
+            categories.forEach((term, count) -> categoryTrie.add(term, count));
+            sources.forEach((term, count) -> sourceTrie.add(term, count));
+            if (removed > 0) {
+                transactionsChanged();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        if (removed > 0) {
+            fireChanged();
+        }
+        return removed;
+    }
+
+    /**
+     * Removes the transaction at a position in getTransactions().
+     * 
+     * @param index The position.
+     * @return true if the index was valid.
+     */
     public boolean removeTransaction(int index) {
-        if (index >= 0 && index < transactions.size()) {
-            transactions.remove(index);
-            return true;
+        long stamp = lock.writeLock();
+        try {
+            if (removedSlots > 0) {
+                compact(); // Line positions up with the snapshot
+            }
+            if (index < 0 || index >= transactions.size()) {
+                return false;
+            }
+            removeAt(index, true);
+            transactionsChanged();
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        return false;
+        fireChanged();
+        return true;
     }
 
+    /**
+     * Removes a transaction. Only the stored object itself matches, so a
+     * copy with the same id (e.g. from a ScenarioView or another user)
+     * removes nothing; use removeTransactionById for those.
+     * 
+     * @param transaction The transaction to remove.
+     * @return true if it was found and removed.
+     */
     public boolean removeTransaction(Transaction transaction) {
-        return transactions.remove(transaction);
+        long stamp = lock.writeLock();
+        try {
+            Integer slot = slots.get(transaction.getId());
+            if (slot == null || transactions.get(slot) != transaction) {
+                return false;
+            }
+            removeAt(slot, true);
+            transactionsChanged();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        fireChanged();
+        return true;
+    }
+
+    /**
+     * Removes a transaction in constant time.
+     * 
+     * @param id The transaction id.
+     * @return true if it was found and removed.
+     */
+    public boolean removeTransactionById(long id) {
+        long stamp = lock.writeLock();
+        try {
+            Integer slot = slots.get(id);
+            if (slot == null) {
+                return false;
+            }
+            removeAt(slot, true);
+            transactionsChanged();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        fireChanged();
+        return true;
+    }
+
+    /**
+     * Looks up a transaction by id.
+     * 
+     * @param id The transaction id.
+     * @return The transaction, or null if none has this id.
+     */
+    public Transaction getTransactionById(long id) {
+        long stamp = lock.readLock();
+        try {
+            Integer slot = slots.get(id);
+            return slot == null ? null : transactions.get(slot);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Suggests a category for a transaction name from the built-in rules and
+     * this user's own keyword rules.
+     * 
+     * @param name The transaction name.
+     * @return The matched category, or null if no rule matches.
+     */
+    public String suggestCategoryForName(String name) {
+        return categoryRules.categorize(name);
+    }
+
+    /**
+     * Adds or replaces a keyword rule; user rules take priority over the
+     * built-in ones.
+     * 
+     * @param keyword  Text to look for as a whole word in names.
+     * @param category The category to assign.
+     */
+    public void addCategoryRule(String keyword, String category) {
+        updateProfile(() -> categoryRules.addRule(keyword, category, true));
+    }
+
+    public boolean removeCategoryRule(String keyword) {
+        if (!categoryRules.getUserRules().containsKey(keyword.trim().toLowerCase(Locale.ROOT))) {
+            return false;
+        }
+        updateProfile(() -> categoryRules.removeRule(keyword, true));
+        return true;
+    }
+
+    /**
+     * Returns this user's own keyword rules, keyword to category.
+     * 
+     * @return A copy of the rules in the order they were added.
+     */
+    public Map<String, String> getCategoryRules() {
+        return categoryRules.getUserRules();
+    }
+
+    /**
+     * Adds a recurring income or expense. Its occurrences are generated on
+     * demand by reports and month views rather than stored.
+     * 
+     * @param rule The recurring transaction.
+     */
+    public void addRecurringTransaction(RecurringTransaction rule) {
+        updateProfile(() -> recurring.add(rule));
+    }
+
+    public boolean removeRecurringTransaction(RecurringTransaction rule) {
+        if (!recurring.contains(rule)) {
+            return false;
+        }
+        updateProfile(() -> recurring.remove(rule));
+        return true;
+    }
+
+    /**
+     * Returns the user's recurring transactions.
+     * 
+     * @return An unmodifiable view, safe to iterate while rules change.
+     */
+    public List<RecurringTransaction> getRecurringTransactions() {
+        return Collections.unmodifiableList(recurring);
+    }
+
+    private boolean insert(Transaction transaction, boolean updateTries) {
+        Integer taken = transaction.getId() == 0 ? null : slots.get(transaction.getId());
+        if (taken != null) {
+            Transaction existing = transactions.get(taken);
+            if (existing == transaction) {
+                throw new IllegalArgumentException("Transaction " + transaction.getId() + " was already added");
+            }
+            if (sameContent(existing, transaction)) {
+                return false; // The same record read twice
+            }
+            transaction.setId(0); // Id clash with a different transaction
+        }
+        if (transaction.getId() == 0) {
+            transaction.setId(++lastId);
+        } else {
+            lastId = Math.max(lastId, transaction.getId());
+        }
+        slots.put(transaction.getId(), transactions.size());
+        transactions.add(transaction);
+        searchIndex.add(transaction);
+        duplicateIndex.add(transaction);
+        if (updateTries) {
+            (transaction instanceof Income ? sourceTrie : categoryTrie).add(transaction.getCategoryOrSource());
+        }
+        adjustTotals(transaction, 1);
+        return true;
+    }
+
+    private static boolean sameContent(Transaction a, Transaction b) {
+        return a.getClass() == b.getClass() && a.getAmount() == b.getAmount() && a.getDate().equals(b.getDate())
+                && Objects.equals(a.getName(), b.getName())
+                && Objects.equals(a.getCategoryOrSource(), b.getCategoryOrSource());
+    }
+
+    private Transaction removeAt(int index, boolean updateTries) {
+        // Leave a hole instead of shifting, so removal stays O(1) and order is kept
+        Transaction removed = transactions.get(index);
+        transactions.set(index, null);
+        removedSlots++;
+        slots.remove(removed.getId());
+        searchIndex.remove(removed);
+        duplicateIndex.remove(removed);
+        if (updateTries) {
+            (removed instanceof Income ? sourceTrie : categoryTrie).remove(removed.getCategoryOrSource());
+        }
+        adjustTotals(removed, -1);
+        if (removedSlots >= MIN_COMPACT_SLOTS && removedSlots > transactions.size() - removedSlots) {
+            compact();
+        }
+        return removed;
+    }
+
+    /**
+     * Drops the holes left by removals and renumbers the slots; amortized
+     * over the removals that made the holes.
+     */
+    private void compact() {
+        int kept = 0;
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            if (transaction != null) {
+                transactions.set(kept, transaction);
+                slots.put(transaction.getId(), kept);
+                kept++;
+            }
+        }
+        transactions.subList(kept, transactions.size()).clear();
+        removedSlots = 0;
+    }
+
+    private void adjustTotals(Transaction transaction, int sign) {
+        // Whole cents keep the running totals exact across adds and removes
+        long cents = sign * Math.round(transaction.getAmount() * 100);
+        YearMonth month = YearMonth.from(transaction.getDate());
+        long[] monthTotals = monthCents.computeIfAbsent(month, k -> new long[3]);
+        monthTotals[2] += sign;
+        if (!sealedMonths.isEmpty()) {
+            sealedMonths.remove(month); // A backdated change reopens a closed month
+        }
+        if (monthTotals[2] == 1 && sign > 0) {
+            savingsTrend.addMonth(month);
+        }
+        if (transaction instanceof Income) {
+            incomeCents += cents;
+            monthTotals[0] += cents;
+            savingsTrend.addNet(month, cents);
+        } else if (transaction instanceof Expense) {
+            expenseCents += cents;
+            monthTotals[1] += cents;
+            savingsTrend.addNet(month, -cents);
+            categoryMonthCents.computeIfAbsent(month, k -> new HashMap<>())
+                    .computeIfAbsent(categoryKey(transaction.getCategoryOrSource()), k -> new long[1])[0] += cents;
+        }
+        if (monthTotals[2] == 0) {
+            savingsTrend.removeMonth(month);
+        }
+    }
+
+    /**
+     * Forecasts when the savings goal will be reached from the trend of
+     * monthly net savings, which is kept up to date on every change.
+     * 
+     * @param current             The current month.
+     * @param balance             The balance today.
+     * @param recurringMonthlyNet Net of recurring transactions per month.
+     * @return The forecast for this user's savings goal and target.
+     */
+    public SavingsProjection.Forecast forecastSavings(YearMonth current, double balance,
+            double recurringMonthlyNet) {
+        LocalDate targetDate = savingsTargetDate;
+        YearMonth target = targetDate != null ? YearMonth.from(targetDate)
+                : savingsTargetMonths > 0 ? current.plusMonths(savingsTargetMonths) : null;
+        long stamp = lock.readLock();
+        try {
+            long[] totals = monthCents.get(current);
+            long currentNet = totals == null ? 0 : totals[0] - totals[1];
+            return savingsTrend.forecast(current, currentNet, balance, recurringMonthlyNet, savingsGoal, target);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private static String categoryKey(String category) {
+        return category == null ? "" : category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns income and expenses for one month from the running per-month
+     * totals, without scanning the history.
+     * 
+     * @param month The month.
+     * @return Array where index 0 is income and index 1 is expenses.
+     */
+    public double[] getMonthTotals(YearMonth month) {
+        long stamp = lock.readLock();
+        try {
+            long[] totals = monthCents.get(month);
+            return totals == null ? new double[2] : new double[] { totals[0] / 100.0, totals[1] / 100.0 };
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the expenses recorded in a category for one month, kept up to
+     * date on every add, remove and edit.
+     * 
+     * @param category The category, matched case-insensitively.
+     * @param month    The month.
+     * @return The total spent.
+     */
+    public double getCategorySpending(String category, YearMonth month) {
+        long stamp = lock.readLock();
+        try {
+            Map<String, long[]> categories = categoryMonthCents.get(month);
+            long[] cents = categories == null ? null : categories.get(categoryKey(category));
+            return cents == null ? 0 : cents[0] / 100.0;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the totals for one month. Sealed months return their stored
+     * summary; other months are built from the running totals.
+     * 
+     * @param month The month.
+     * @return The month's summary; empty if nothing is dated in it.
+     */
+    public MonthSummary getMonthSummary(YearMonth month) {
+        long stamp = lock.readLock();
+        try {
+            MonthSummary sealed = sealedMonths.get(month);
+            return sealed != null ? sealed : buildSummary(month, false);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns a summary for every month with transactions, reusing the
+     * sealed summaries of closed months.
+     * 
+     * @return Summaries sorted by month.
+     */
+    public SortedMap<YearMonth, MonthSummary> getMonthSummaries() {
+        long stamp = lock.readLock();
+        try {
+            SortedMap<YearMonth, MonthSummary> summaries = new TreeMap<>();
+            for (Map.Entry<YearMonth, long[]> entry : monthCents.entrySet()) {
+                if (entry.getValue()[2] > 0) {
+                    MonthSummary sealed = sealedMonths.get(entry.getKey());
+                    summaries.put(entry.getKey(), sealed != null ? sealed : buildSummary(entry.getKey(), false));
+                }
+            }
+            return summaries;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Seals every month before the given one that is not sealed yet, so
+     * later reads of closed months reuse one immutable summary.
+     * 
+     * @param current The current month; it and later months stay open.
+     * @return The newly sealed summaries, oldest first.
+     */
+    public List<MonthSummary> sealMonthsBefore(YearMonth current) {
+        long stamp = lock.writeLock();
+        try {
+            List<MonthSummary> closed = new ArrayList<>();
+            for (YearMonth month : monthCents.keySet()) {
+                if (month.isBefore(current) && !sealedMonths.containsKey(month)) {
+                    MonthSummary summary = buildSummary(month, true);
+                    sealedMonths.put(month, summary);
+                    closed.add(summary);
+                }
+            }
+            closed.sort((a, b) -> a.getMonth().compareTo(b.getMonth()));
+            return closed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private MonthSummary buildSummary(YearMonth month, boolean sealed) {
+        long[] totals = monthCents.get(month);
+        Map<String, Double> categories = new LinkedHashMap<>();
+        Map<String, long[]> categoryCents = categoryMonthCents.get(month);
+        if (categoryCents != null) {
+            categoryCents.forEach((category, cents) -> {
+                if (cents[0] != 0) {
+                    categories.put(category, cents[0] / 100.0);
+                }
+            });
+        }
+        return totals == null ? new MonthSummary(month, 0, 0, 0, categories, sealed)
+                : new MonthSummary(month, totals[0] / 100.0, totals[1] / 100.0, (int) totals[2], categories, sealed);
+    }
+
+    /**
+     * Sets the monthly budget for one expense category.
+     * 
+     * @param category The category.
+     * @param budget   The monthly limit; 0 or less removes the budget.
+     */
+    public void setCategoryBudget(String category, double budget) {
+        String name = category == null ? "" : category.trim();
+        if (name.isEmpty()) {
+            return;
+        }
+        updateProfile(() -> {
+            categoryBudgets.keySet().removeIf(existing -> existing.equalsIgnoreCase(name));
+            if (budget > 0) {
+                categoryBudgets.put(name, budget);
+            }
+        });
+    }
+
+    /**
+     * Returns the per-category monthly budgets.
+     * 
+     * @return A copy, category to budget, in the order they were set.
+     */
+    public Map<String, Double> getCategoryBudgets() {
+        long stamp = lock.readLock();
+        try {
+            return new LinkedHashMap<>(categoryBudgets);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the sum of all income, kept up to date on every change.
+     * 
+     * @return Total income.
+     */
+    public double getTotalIncome() {
+        return readTotals()[0];
+    }
+
+    /**
+     * Returns the sum of all expenses, kept up to date on every change.
+     * 
+     * @return Total expenses.
+     */
+    public double getTotalExpenses() {
+        return readTotals()[1];
+    }
+
+    /**
+     * Returns total income minus total expenses.
+     * 
+     * @return The current balance.
+     */
+    public double getBalance() {
+        double[] totals = readTotals();
+        return totals[0] - totals[1];
+    }
+
+    private double[] readTotals() {
+        long stamp = lock.tryOptimisticRead();
+        long income = incomeCents;
+        long expenses = expenseCents;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                income = incomeCents;
+                expenses = expenseCents;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return new double[] { income / 100.0, expenses / 100.0 };
+    }
+
+    /**
+     * Finds transactions whose name or category/source contains the text,
+     * using the trigram index kept in sync with add and remove. Safe to call
+     * off the EDT, and the history search does so for every query.
+     * 
+     * @param text Case-insensitive text to find.
+     * @return Matching transactions in insertion order.
+     */
+    public List<Transaction> searchTransactions(String text) {
+        long stamp = lock.readLock();
+        try {
+            return searchIndex.search(text);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Counts transactions with the same type, amount, name and
+     * category/source dated within a window of the candidate's date.
+     * Used to flag or skip duplicates without scanning the history.
+     * 
+     * @param candidate  The transaction to check; it need not be added.
+     * @param windowDays Days before or after that still match (0 = same day).
+     * @return The number of similar transactions.
+     */
+    public int countSimilarTransactions(Transaction candidate, int windowDays) {
+        long stamp = lock.readLock();
+        try {
+            return duplicateIndex.count(candidate, windowDays);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Suggests income sources or expense categories already in use.
+     * 
+     * @param income true for income sources, false for expense categories.
+     * @param prefix Case-insensitive prefix.
+     * @param limit  The maximum number of suggestions.
+     * @return Suggestions, most frequently used first.
+     */
+    public List<String> suggestCategoryOrSource(boolean income, String prefix, int limit) {
+        long stamp = lock.readLock();
+        try {
+            return (income ? sourceTrie : categoryTrie).suggest(prefix, limit);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Looks up the existing spelling of an income source or expense category.
+     * 
+     * @param income true for income sources, false for expense categories.
+     * @param term   The term to look up, ignoring case.
+     * @return The spelling in use, or null if the term is new.
+     */
+    public String canonicalCategoryOrSource(boolean income, String term) {
+        long stamp = lock.readLock();
+        try {
+            return (income ? sourceTrie : categoryTrie).canonical(term);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Must be called with the write lock held after the list changes.
+     */
+    private void transactionsChanged() {
+        snapshot = null;
+        version++;
     }
 
     public Transaction getTransaction(int index) {
-        if (index >= 0 && index < transactions.size()) {
-            return transactions.get(index);
+        List<Transaction> current = getTransactions();
+        if (index >= 0 && index < current.size()) {
+            return current.get(index);
         }
         return null;
     }
 
     public int getTransactionCount() {
-        return transactions.size();
+        long stamp = lock.tryOptimisticRead();
+        int count = transactions.size() - removedSlots;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                count = transactions.size() - removedSlots;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return count;
     }
 
     public double getMonthlyBudget() {
@@ -87,7 +854,7 @@ public class User {
 
     public void setMonthlyBudget(double monthlyBudget) {
         if (monthlyBudget >= 0) {
-            this.monthlyBudget = monthlyBudget;
+            updateProfile(() -> this.monthlyBudget = monthlyBudget);
         }
     }
 
@@ -97,7 +864,7 @@ public class User {
 
     public void setSavingsGoal(double savingsGoal) {
         if (savingsGoal >= 0) {
-            this.savingsGoal = savingsGoal;
+            updateProfile(() -> this.savingsGoal = savingsGoal);
         }
     }
 
@@ -106,7 +873,7 @@ public class User {
     }
 
     public void setSavingsTargetDate(LocalDate savingsTargetDate) {
-        this.savingsTargetDate = savingsTargetDate;
+        updateProfile(() -> this.savingsTargetDate = savingsTargetDate);
     }
 
     public int getSavingsTargetMonths() {
@@ -115,11 +882,83 @@ public class User {
 
     public void setSavingsTargetMonths(int savingsTargetMonths) {
         if (savingsTargetMonths >= 0) {
-            this.savingsTargetMonths = savingsTargetMonths;
+            updateProfile(() -> this.savingsTargetMonths = savingsTargetMonths);
         }
     }
 
     public String getPassword() {
         return password;
     }
+
+    /**
+     * Registers a listener to be notified after every change.
+     * 
+     * @param listener The listener to add.
+     */
+    public void addChangeListener(UserChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeChangeListener(UserChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns a counter that increases with every change to this user.
+     * 
+     * @return The current modification version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Records that the given version has been written to storage.
+     * 
+     * @param savedVersion The version that was saved.
+     */
+    public void markSaved(long savedVersion) {
+        if (savedVersion > this.savedVersion) {
+            this.savedVersion = savedVersion;
+        }
+    }
+
+    /**
+     * Returns the newest version written to storage.
+     * 
+     * @return The saved version.
+     */
+    public long getSavedVersion() {
+        return savedVersion;
+    }
+
+    /**
+     * Checks whether there are changes not yet written to storage.
+     * 
+     * @return true if the user changed since the last save.
+     */
+    public boolean isDirty() {
+        return version != savedVersion;
+    }
+
+    private void updateProfile(Runnable change) {
+        long stamp = lock.writeLock();
+        try {
+            change.run();
+            version++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        fireChanged();
+    }
+
+    /**
+     * Notifies listeners; called after the write lock is released so a
+     * listener can read the user without deadlocking.
+     */
+    private void fireChanged() {
+        for (UserChangeListener listener : listeners) {
+            listener.userChanged(this);
+        }
+    }
 }
@@ -0,0 +1,224 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Bounded cache of loaded users so repeated logins skip reparsing the file.
+ * Entries are kept in least-recently-used order and evicted once their
+ * estimated heap footprint exceeds the budget. Cached users keep growing,
+ * so each entry re-estimates its own footprint whenever its user changes. The
+ * logged-in user can be pinned so loading another user never evicts it. A
+ * user with unsaved changes is handed to the write-back callback as it is
+ * evicted.
+ */
+public class UserCache {
+    // Rough per-object costs: User with its indexes, and one transaction with
+    // its strings, date, list slot, trigram postings and trie counts
+    private static final long USER_BYTES = 4 * 1024;
+    private static final long TRANSACTION_BYTES = 320;
+
+    private final long maxBytes;
+    private final Consumer<User> writeBack;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private String pinned;
+
+    // Statistics, guarded by this
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long writeBacks;
+
+    /**
+     * Creates a cache with a memory budget.
+     *
+     * @param maxBytes  The estimated heap size the cache may use.
+     * @param writeBack Receives dirty users as they are evicted.
+     */
+    public UserCache(long maxBytes, Consumer<User> writeBack) {
+        this.maxBytes = maxBytes;
+        this.writeBack = writeBack;
+    }
+
+    /**
+     * Looks up a cached user and marks it as recently used.
+     *
+     * @param username The username.
+     * @return The cached User, or null on a miss.
+     */
+    public User get(String username) {
+        List<User> evicted;
+        User user;
+        synchronized (this) {
+            Entry entry = entries.get(username);
+            if (entry == null) {
+                misses++;
+                return null;
+            }
+            hits++;
+            user = entry.user;
+            evicted = evictOverBudget(username);
+        }
+        writeBack(evicted);
+        return user;
+    }
+
+    /**
+     * Adds or replaces a user, evicting older users if over budget.
+     *
+     * @param user The user to cache.
+     */
+    public void put(User user) {
+        List<User> evicted;
+        synchronized (this) {
+            Entry entry = new Entry(user);
+            Entry old = entries.put(user.getUsername(), entry);
+            if (old != null) {
+                release(old);
+            }
+            totalBytes += entry.bytes;
+            user.addChangeListener(entry);
+            evicted = evictOverBudget(user.getUsername());
+        }
+        writeBack(evicted);
+    }
+
+    /**
+     * Removes a user from the cache without writing it back.
+     *
+     * @param username The username.
+     */
+    public synchronized void invalidate(String username) {
+        Entry entry = entries.remove(username);
+        if (entry != null) {
+            release(entry);
+        }
+    }
+
+    /**
+     * Keeps a user cached until unpinned, e.g. the logged-in user while
+     * others are loaded. Pinning another user releases the previous one.
+     *
+     * @param username The username to keep.
+     */
+    public synchronized void pin(String username) {
+        pinned = username;
+    }
+
+    /**
+     * Releases the pinned user; it is evicted normally from then on.
+     */
+    public synchronized void unpin() {
+        pinned = null;
+    }
+
+    /**
+     * Re-estimates one entry after its user changed. Called on the thread
+     * that changed the user, after the user's lock is released.
+     */
+    private synchronized void resize(Entry entry) {
+        if (!entry.cached) {
+            return; // Evicted or replaced while the change was being made
+        }
+        long bytes = estimateBytes(entry.user);
+        totalBytes += bytes - entry.bytes;
+        entry.bytes = bytes;
+    }
+
+    private void release(Entry entry) {
+        entry.cached = false;
+        entry.user.removeChangeListener(entry);
+        totalBytes -= entry.bytes;
+    }
+
+    private List<User> evictOverBudget(String keep) {
+        List<User> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Entry> eldest = it.next();
+            if (eldest.getKey().equals(keep) || eldest.getKey().equals(pinned)) {
+                continue; // Never evict the user being returned or the pinned user
+            }
+            it.remove();
+            release(eldest.getValue());
+            evictions++;
+            if (eldest.getValue().user.isDirty()) {
+                evicted.add(eldest.getValue().user);
+                writeBacks++;
+            }
+        }
+        return evicted;
+    }
+
+    private void writeBack(List<User> users) {
+        for (User user : users) {
+            writeBack.accept(user);
+        }
+    }
+
+    /**
+     * Estimates the heap used by a loaded user.
+     *
+     * @param user The user.
+     * @return Approximate size in bytes.
+     */
+    static long estimateBytes(User user) {
+        return USER_BYTES + user.getTransactionCount() * TRANSACTION_BYTES;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getEstimatedBytes() {
+        return totalBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getWriteBacks() {
+        return writeBacks;
+    }
+
+    /**
+     * Formats the cache statistics for logging.
+     *
+     * @return A one-line summary.
+     */
+    public synchronized String getMetricsSummary() {
+        long lookups = hits + misses;
+        return String.format("users=%d size=%.1fMB hits=%d misses=%d hitRate=%.1f%% evictions=%d writeBacks=%d",
+                entries.size(), totalBytes / (1024.0 * 1024.0), hits, misses,
+                lookups == 0 ? 0 : hits * 100.0 / lookups, evictions, writeBacks);
+    }
+
+    private final class Entry implements UserChangeListener {
+        private final User user;
+        // Both guarded by the cache
+        private long bytes;
+        private boolean cached = true;
+
+        Entry(User user) {
+            this.user = user;
+            this.bytes = estimateBytes(user);
+        }
+
+        @Override
+        public void userChanged(User changed) {
+            resize(this);
+        }
+    }
+}
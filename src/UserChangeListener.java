@@ -0,0 +1,12 @@
+/**
+ * Receives notifications when a user's profile or transactions change.
+ * Listeners are called on the thread that made the change.
+ */
+public interface UserChangeListener {
+    /**
+     * Called after a change has been applied to the user.
+     * 
+     * @param user The user that changed.
+     */
+    void userChanged(User user);
+}
@@ -0,0 +1,19 @@
+/**
+ * Command-line tool that moves user files from the old flat user_data/
+ * layout into the sharded layout used by FileManager.
+ * Usage: java UserDataMigrator [dataDirectory]
+ */
+public class UserDataMigrator {
+
+    public static void main(String[] args) {
+        if (args.length > 0) {
+            FileManager.setDataDirectory(args[0]);
+        }
+        System.out.println("Migrating user files in " + FileManager.getDataDirectory());
+        long start = System.nanoTime();
+        int moved = FileManager.migrateFlatLayout();
+        double millis = (System.nanoTime() - start) / 1e6;
+        System.out.printf("Moved %d file(s) in %.1f ms; %d user(s) now stored%n", moved, millis,
+                FileManager.listUsers().size());
+    }
+}
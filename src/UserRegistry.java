@@ -0,0 +1,115 @@
+import java.util.List;
+
+/**
+ * In-memory view of which usernames are taken, built once from the storage
+ * backend at startup.
+ * A Bloom filter answers "no such user" cheaply, which is the common case
+ * for registration and mistyped logins. It is the only thing kept in
+ * memory, so a "maybe" is settled by asking the storage backend.
+ */
+public class UserRegistry {
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_CAPACITY = 1024;
+
+    private final StorageBackend storage;
+    private BloomFilter filter;
+    private int capacity;
+    private int size;
+
+    // Statistics, guarded by this
+    private long negativeLookups;
+    private long confirmedLookups;
+    private long falsePositives;
+
+    /**
+     * Builds the registry by listing every stored user.
+     *
+     * @param storage The backend holding user data.
+     */
+    public UserRegistry(StorageBackend storage) {
+        this.storage = storage;
+        rebuild();
+    }
+
+    /**
+     * Rescans the backend, e.g. after users were added by another process.
+     */
+    public synchronized void rebuild() {
+        List<String> users = storage.listUsers();
+        capacity = Math.max(MIN_CAPACITY, users.size() * 2);
+        filter = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+        for (String username : users) {
+            filter.add(username);
+        }
+        size = users.size();
+    }
+
+    /**
+     * Checks whether a username is taken.
+     *
+     * @param username The username to check.
+     * @return true if a user with this name is stored.
+     */
+    public boolean exists(String username) {
+        synchronized (this) {
+            if (!filter.mightContain(username)) {
+                negativeLookups++;
+                return false;
+            }
+        }
+        // Only filter hits reach storage
+        boolean exists = storage.exists(username);
+        synchronized (this) {
+            confirmedLookups++;
+            if (!exists) {
+                falsePositives++;
+            }
+        }
+        return exists;
+    }
+
+    /**
+     * Quick check with no storage access, for callers that only need to
+     * rule users out. May return true for a user that does not exist.
+     *
+     * @param username The username to check.
+     * @return false if the user definitely does not exist.
+     */
+    public synchronized boolean mightExist(String username) {
+        return filter.mightContain(username);
+    }
+
+    /**
+     * Records a newly registered user.
+     *
+     * @param username The new username.
+     */
+    public void add(String username) {
+        boolean full;
+        synchronized (this) {
+            filter.add(username);
+            size++;
+            full = filter.getInsertions() > capacity;
+        }
+        if (full) {
+            // Keep the false positive rate near its target as users accumulate
+            rebuild();
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long getNegativeLookups() {
+        return negativeLookups;
+    }
+
+    public synchronized long getConfirmedLookups() {
+        return confirmedLookups;
+    }
+
+    public synchronized long getFalsePositives() {
+        return falsePositives;
+    }
+}